@@ -0,0 +1,65 @@
+package com.tzavellas.validation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tzavellas.validation.benchmarks.Datasets;
+import com.tzavellas.validation.benchmarks.Person;
+
+/**
+ * Benchmarks of <code>ReflectionHelper.readProperty</code>, that parses the
+ * property path on each call, against a pre-compiled <code>PropertyPath</code>.
+ * 
+ * <p>This benchmark is in the package of <code>ReflectionHelper</code> because
+ * the class is package private.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ReflectionHelperBenchmark {
+	
+	private Person person;
+	private PropertyPath simple, nested;
+	
+	@Setup
+	public void setUp() {
+		person = Datasets.persons(1, 0)[0];
+		simple = new PropertyPath("firstName");
+		nested = new PropertyPath("address.city");
+	}
+	
+	@Benchmark
+	public Object readSimpleProperty() {
+		return ReflectionHelper.readProperty(person, "firstName");
+	}
+	
+	@Benchmark
+	public Object readNestedProperty() {
+		return ReflectionHelper.readProperty(person, "address.city");
+	}
+	
+	@Benchmark
+	public Object readCompiledSimpleProperty() {
+		return simple.read(person);
+	}
+	
+	@Benchmark
+	public Object readCompiledNestedProperty() {
+		return nested.read(person);
+	}
+}
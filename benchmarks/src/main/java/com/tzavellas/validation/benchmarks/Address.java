@@ -0,0 +1,24 @@
+package com.tzavellas.validation.benchmarks;
+
+/**
+ * A JavaBean used in the benchmarks.
+ * 
+ * @author Spiros Tzavellas
+ */
+public class Address {
+	
+	private String street, city;
+	
+	public Address() { }
+	
+	public Address(String street, String city) {
+		this.street = street;
+		this.city = city;
+	}
+	
+	public String getStreet() { return street; }
+	public void setStreet(String s) { this.street = s; }
+	
+	public String getCity() { return city; }
+	public void setCity(String c) { this.city = c; }
+}
@@ -0,0 +1,93 @@
+package com.tzavellas.validation.benchmarks;
+
+import static com.tzavellas.validation.property.Validators.date;
+import static com.tzavellas.validation.property.Validators.integer;
+import static com.tzavellas.validation.property.Validators.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tzavellas.validation.BeanValidator;
+import com.tzavellas.validation.ValidationResult;
+
+/**
+ * Benchmarks of <code>BeanValidator</code> for flat and nested beans.
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BeanValidatorBenchmark {
+	
+	private static final int DATASET_SIZE = 1024;
+	
+	/** The fraction of the invalid beans in the dataset */
+	@Param({"0.0", "0.5", "1.0"})
+	public double invalidRatio;
+	
+	private Person[] persons;
+	private int next;
+	
+	private BeanValidator flat, nested, bound;
+	
+	@Setup
+	public void setUp() {
+		persons = Datasets.persons(DATASET_SIZE, invalidRatio);
+		
+		flat = new BeanValidator(
+				string("firstName").required(),
+				string("lastName").required(),
+				string("email").required().email(),
+				integer("age").required().min(18),
+				date("birthdate").past());
+		nested = new BeanValidator(
+				string("firstName").required(),
+				string("address.street").required(),
+				string("address.city").required().maxLength(64));
+		bound = BeanValidator.forClass(Person.class,
+				string("firstName").required(),
+				string("lastName").required(),
+				string("email").required().email(),
+				integer("age").required().min(18),
+				date("birthdate").past());
+	}
+	
+	private Person nextPerson() {
+		return persons[next++ & (DATASET_SIZE - 1)];
+	}
+	
+	@Benchmark
+	public ValidationResult validateFlat() {
+		return flat.validate(nextPerson());
+	}
+	
+	@Benchmark
+	public ValidationResult validateNested() {
+		return nested.validate(nextPerson());
+	}
+	
+	@Benchmark
+	public ValidationResult validateBound() {
+		return bound.validate(nextPerson());
+	}
+	
+	@Benchmark
+	public boolean isValidFlat() {
+		return flat.isValid(nextPerson());
+	}
+}
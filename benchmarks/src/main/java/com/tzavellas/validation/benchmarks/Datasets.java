@@ -0,0 +1,103 @@
+package com.tzavellas.validation.benchmarks;
+
+import java.util.Date;
+import java.util.Random;
+
+/**
+ * Reproducible datasets for the benchmarks.
+ * 
+ * <p>All the random data is generated from fixed seeds, so every run of a
+ * benchmark validates exactly the same inputs.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+public abstract class Datasets {
+	
+	private Datasets() { }
+	
+	public static final long SEED = 20071001L;
+	
+	public static final String[] VALID_EMAILS = {
+		"jsmith@apache.org", "someone@example.org", "first.last@sub.domain.example.com",
+		"joe1blow@apache.org", "joe$blow@apache.org", "joe-@apache.org", "joe_@apache.org",
+		"jsmith@[192.168.1.1]", "\"joe blow\"@apache.org", "someone@example.info"
+	};
+	
+	public static final String[] INVALID_EMAILS = {
+		"not a valid email", "jsmith@apache.", "jsmith@apache.c", "joeblow@apa,che.org",
+		"joe.@apache.org", ".joe@apache.org", "joe..blow@apache.org", "joe@apache..org",
+		"@apache.org", "joe;blow@apache.org"
+	};
+	
+	public static final String[] VALID_URLS = {
+		"http://www.tzavellas.com", "http://www.google.com:80/test1", "https://apache.org/a/b/c?x=1&y=2",
+		"ftp://255.255.255.255:8080/file", "http://go.com/t123/file", "http://www.google.com/test1?action=view",
+		"http://go.au:0/", "https://go.cc/index.html", "http://www.apache.org/$23", "http://1.2.3.4/#frag"
+	};
+	
+	public static final String[] INVALID_URLS = {
+		"not a valid url", "http:/www.google.com", "3ht://go.com", "http://1.2.3.4.5",
+		"http://256.256.256.256", "http://go.com:65a", "http://go.com:-1", "http://go.com/../",
+		"http://go.com/..//file", "http:///"
+	};
+	
+	public static final String[] VALID_CARDS = {
+		"4417123456789113", "4222222222222", "378282246310005", "5105105105105100", "6011000990139424",
+		"4111111111111111", "5555555555554444", "371449635398431", "6011111111111117", "5500000000000004"
+	};
+	
+	public static final String[] INVALID_CARDS = {
+		"not a credit number", "4417123456789112", "123", "5105105105105106", "6011000990139425",
+		"4111111111111112", "55555555555544", "3714496353984310", "60111111111111171", "9999999999999995"
+	};
+	
+	public static final String[] VALID_ISBNS = {
+		"0-262-51087-1", "1930110995", "1-930110-99-5", "1 930110 99 5", "020163385X",
+		"0-201-63385-X", "0 201 63385 X", "0262510871", "0-596-00712-4", "0596007124"
+	};
+	
+	public static final String[] INVALID_ISBNS = {
+		"not an isbn", "1930110990", "1-930110-99-0", "02016338X5", "0-201-63385-1",
+		"0262510872", "12345", "0-262-51087", "0-596-00712-X", "0596007125"
+	};
+	
+	public static final String[] VALID_CODES = {
+		"AB-1234", "XY-0000", "QQ-9876", "ZZ-1111", "MN-4567", "AA-0101", "BC-2020", "DE-3030", "FG-4040", "HI-5050"
+	};
+	
+	public static final String[] INVALID_CODES = {
+		"ab-1234", "AB1234", "AB-123", "ABC-1234", "AB-12345", "A-1234", "AB_1234", "", "AB-12a4", "1234-AB"
+	};
+	
+	
+	/**
+	 * Create persons where a fraction of them is invalid.
+	 * 
+	 * @param count the number of persons
+	 * @param invalidRatio the fraction of invalid persons (0 to 1)
+	 */
+	public static Person[] persons(int count, double invalidRatio) {
+		Random random = new Random(SEED);
+		Person[] persons = new Person[count];
+		for (int i = 0; i < count; i++) {
+			Person p = new Person();
+			p.setFirstName("First" + i);
+			p.setLastName("Last" + i);
+			p.setEmail(VALID_EMAILS[random.nextInt(VALID_EMAILS.length)]);
+			p.setAge(18 + random.nextInt(60));
+			p.setBirthdate(new Date(random.nextInt(1000000)));
+			p.setAddress(new Address("Street " + i, "City " + i));
+			
+			if (random.nextDouble() < invalidRatio) {
+				switch (random.nextInt(4)) {
+				case 0: p.setFirstName(""); break;
+				case 1: p.setEmail(INVALID_EMAILS[random.nextInt(INVALID_EMAILS.length)]); break;
+				case 2: p.setAge(random.nextInt(18)); break;
+				default: p.getAddress().setCity(null);
+				}
+			}
+			persons[i] = p;
+		}
+		return persons;
+	}
+}
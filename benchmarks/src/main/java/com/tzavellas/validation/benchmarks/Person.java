@@ -0,0 +1,34 @@
+package com.tzavellas.validation.benchmarks;
+
+import java.util.Date;
+
+/**
+ * A JavaBean used in the benchmarks.
+ * 
+ * @author Spiros Tzavellas
+ */
+public class Person {
+	
+	private String firstName, lastName, email;
+	private int age;
+	private Date birthdate;
+	private Address address = new Address();
+	
+	public int getAge() { return age; }
+	public void setAge(int age) { this.age = age; }
+	
+	public Date getBirthdate() { return birthdate; }
+	public void setBirthdate(Date birthdate) { this.birthdate = birthdate; }
+	
+	public String getEmail() { return email; }
+	public void setEmail(String email) { this.email = email; }
+	
+	public String getFirstName() { return firstName; }
+	public void setFirstName(String firstName) { this.firstName = firstName; }
+	
+	public String getLastName() { return lastName; }
+	public void setLastName(String lastName) { this.lastName = lastName; }
+	
+	public Address getAddress() { return address; }
+	public void setAddress(Address address) { this.address = address; }
+}
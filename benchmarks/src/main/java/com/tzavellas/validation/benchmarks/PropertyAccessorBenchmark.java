@@ -0,0 +1,78 @@
+package com.tzavellas.validation.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tzavellas.validation.PropertyAccessor;
+import com.tzavellas.validation.PropertyAccessors;
+
+/**
+ * Compares the cost of reading a property using the reflective and the
+ * generated accessors against a direct getter call.
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class PropertyAccessorBenchmark {
+	
+	private Person person;
+	private PropertyAccessor reflectiveString, generatedString;
+	private PropertyAccessor reflectiveInt, generatedInt;
+	
+	@Setup
+	public void setUp() throws Exception {
+		person = new Person();
+		person.setFirstName("Spiros");
+		person.setAge(27);
+		
+		reflectiveString = PropertyAccessors.REFLECTION.createAccessor(Person.class.getMethod("getFirstName"));
+		generatedString = PropertyAccessors.GENERATED.createAccessor(Person.class.getMethod("getFirstName"));
+		reflectiveInt = PropertyAccessors.REFLECTION.createAccessor(Person.class.getMethod("getAge"));
+		generatedInt = PropertyAccessors.GENERATED.createAccessor(Person.class.getMethod("getAge"));
+	}
+	
+	@Benchmark
+	public Object directString() {
+		return person.getFirstName();
+	}
+	
+	@Benchmark
+	public Object reflectiveString() {
+		return reflectiveString.read(person);
+	}
+	
+	@Benchmark
+	public Object generatedString() {
+		return generatedString.read(person);
+	}
+	
+	@Benchmark
+	public Object directInt() {
+		return person.getAge();
+	}
+	
+	@Benchmark
+	public Object reflectiveInt() {
+		return reflectiveInt.read(person);
+	}
+	
+	@Benchmark
+	public Object generatedInt() {
+		return generatedInt.read(person);
+	}
+}
@@ -0,0 +1,72 @@
+package com.tzavellas.validation.benchmarks;
+
+import static com.tzavellas.validation.property.Validators.date;
+import static com.tzavellas.validation.property.Validators.integer;
+import static com.tzavellas.validation.property.Validators.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import com.tzavellas.validation.spring.SpringValidator;
+
+/**
+ * Benchmarks of <code>SpringValidator.validate</code>, including the creation
+ * of the Spring <code>Errors</code> object.
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SpringValidatorBenchmark {
+	
+	private static final int DATASET_SIZE = 1024;
+	
+	/** The fraction of the invalid beans in the dataset */
+	@Param({"0.0", "1.0"})
+	public double invalidRatio;
+	
+	private Person[] persons;
+	private int next;
+	private SpringValidator validator;
+	
+	@Setup
+	public void setUp() {
+		persons = Datasets.persons(DATASET_SIZE, invalidRatio);
+		validator = new SpringValidator(Person.class,
+				string("firstName").required(),
+				string("lastName").required(),
+				string("email").required().email(),
+				integer("age").required().min(18),
+				date("birthdate").past());
+	}
+	
+	@Benchmark
+	public Errors validate() {
+		Person p = persons[next++ & (DATASET_SIZE - 1)];
+		Errors errors = new BeanPropertyBindingResult(p, "person");
+		validator.validate(p, errors);
+		return errors;
+	}
+	
+	@Benchmark
+	public boolean isValid() {
+		return validator.isValid(persons[next++ & (DATASET_SIZE - 1)]);
+	}
+}
@@ -0,0 +1,75 @@
+package com.tzavellas.validation.benchmarks;
+
+import static com.tzavellas.validation.property.Validators.string;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.tzavellas.validation.PropertyValidator;
+import com.tzavellas.validation.ValidationError;
+
+/**
+ * Benchmarks of the <code>StringValidatorBuilder</code> chains.
+ * 
+ * <p>Each invocation validates the next value of a dataset of ten valid or
+ * ten invalid values.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StringValidatorBenchmark {
+	
+	@Param({"email", "url", "creditCard", "isbn", "regex"})
+	public String chain;
+	
+	@Param({"true", "false"})
+	public boolean valid;
+	
+	private PropertyValidator<String> validator;
+	private String[] values;
+	private int next;
+	
+	@Setup
+	public void setUp() {
+		if ("email".equals(chain)) {
+			validator = string("value").required().email();
+			values = valid ? Datasets.VALID_EMAILS : Datasets.INVALID_EMAILS;
+		} else if ("url".equals(chain)) {
+			validator = string("value").required().url();
+			values = valid ? Datasets.VALID_URLS : Datasets.INVALID_URLS;
+		} else if ("creditCard".equals(chain)) {
+			validator = string("value").required().creditCard();
+			values = valid ? Datasets.VALID_CARDS : Datasets.INVALID_CARDS;
+		} else if ("isbn".equals(chain)) {
+			validator = string("value").required().isbn();
+			values = valid ? Datasets.VALID_ISBNS : Datasets.INVALID_ISBNS;
+		} else {
+			validator = string("value").required().regex("[A-Z]{2}-[0-9]{4}");
+			values = valid ? Datasets.VALID_CODES : Datasets.INVALID_CODES;
+		}
+	}
+	
+	@Benchmark
+	public ValidationError validate() {
+		String value = values[next++];
+		if (next == values.length)
+			next = 0;
+		return validator.validate(value);
+	}
+}
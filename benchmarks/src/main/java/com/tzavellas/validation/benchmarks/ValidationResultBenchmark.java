@@ -0,0 +1,68 @@
+package com.tzavellas.validation.benchmarks;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.StaticMessageSource;
+
+import com.tzavellas.validation.ValidationError;
+import com.tzavellas.validation.ValidationResult;
+import com.tzavellas.validation.spring.MessageSourceResolver;
+
+/**
+ * Benchmarks of <code>ValidationResult.getErrorMessages</code> with the default
+ * resolver and with a Spring <code>MessageSource</code>.
+ * 
+ * @author Spiros Tzavellas
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ValidationResultBenchmark {
+	
+	@Param({"1", "10", "100"})
+	public int errors;
+	
+	private ValidationResult defaultMessages, springMessages;
+	
+	@Setup
+	public void setUp() {
+		StaticMessageSource source = new StaticMessageSource();
+		source.addMessage("validator.string.max.length", Locale.US, "Must not have more than {0} characters");
+		
+		defaultMessages = new ValidationResult();
+		springMessages = new ValidationResult();
+		springMessages.setMessageResolver(new MessageSourceResolver(source));
+		for (int i = 0; i < errors; i++) {
+			ValidationError error = new ValidationError("field" + i, "validator.string.max.length",
+					"Must not have more than 10 characters", 10);
+			defaultMessages.addError(error);
+			springMessages.addError(error);
+		}
+	}
+	
+	@Benchmark
+	public Map<String, String> defaultResolver() {
+		return defaultMessages.getErrorMessages(Locale.US);
+	}
+	
+	@Benchmark
+	public Map<String, String> messageSourceResolver() {
+		return springMessages.getErrorMessages(Locale.US);
+	}
+}
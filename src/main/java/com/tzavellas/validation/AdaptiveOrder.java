@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Orders the steps of a {@link ValidationPlan}, for fail-fast validations, so
+ * that cheap checks that are likely to fail run first.
+ * 
+ * <p>One in {@value #SAMPLE_INTERVAL} validations is sampled: all the steps are
+ * evaluated and timed. Every {@value #SAMPLES_PER_REORDER} samples the steps are
+ * sorted by their expected cost of rejecting an object (the average time of the
+ * step divided by its failure rate) and the statistics are halved, so that the
+ * order follows changes in the validated data.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe. The call counter is updated
+ * without synchronization, so under contention a few samples may be skipped, which
+ * does not affect the ordering.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+final class AdaptiveOrder {
+	
+	static final int SAMPLE_INTERVAL = 1024;
+	static final int SAMPLES_PER_REORDER = 64;
+	
+	private final long[] nanos;
+	private final long[] failures;
+	private int samples;
+	private int calls;
+	
+	/** The indexes of the steps in the order they must be evaluated */
+	private volatile int[] order;
+	
+	
+	AdaptiveOrder(int steps) {
+		nanos = new long[steps];
+		failures = new long[steps];
+		order = new int[steps];
+		for (int i = 0; i < steps; i++)
+			order[i] = i;
+	}
+	
+	
+	/**
+	 * Get the current order of the steps. The returned array must not be modified.
+	 */
+	int[] getOrder() {
+		return order;
+	}
+	
+	
+	/**
+	 * Whether the current validation must be sampled.
+	 */
+	boolean shouldSample() {
+		return (++calls & (SAMPLE_INTERVAL - 1)) == 0;
+	}
+	
+	
+	/**
+	 * Record the statistics of a sampled validation.
+	 * 
+	 * @param stepNanos the time spent in each step
+	 * @param stepFailed whether each step failed
+	 */
+	synchronized void record(long[] stepNanos, boolean[] stepFailed) {
+		for (int i = 0; i < nanos.length; i++) {
+			nanos[i] += stepNanos[i];
+			if (stepFailed[i])
+				failures[i]++;
+		}
+		if (++samples == SAMPLES_PER_REORDER) {
+			reorder();
+		}
+	}
+	
+	
+	private void reorder() {
+		final double[] score = new double[nanos.length];
+		for (int i = 0; i < score.length; i++) {
+			// Laplace smoothing, so steps that never failed still have a finite score
+			double failureRate = (failures[i] + 1.0) / (samples + 2.0);
+			score[i] = (nanos[i] / (double) samples) / failureRate;
+		}
+		
+		Integer[] sorted = new Integer[score.length];
+		for (int i = 0; i < sorted.length; i++)
+			sorted[i] = i;
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Double.compare(score[a], score[b]);
+			}
+		});
+		
+		int[] newOrder = new int[sorted.length];
+		for (int i = 0; i < sorted.length; i++)
+			newOrder[i] = sorted[i];
+		order = newOrder;
+		
+		for (int i = 0; i < nanos.length; i++) {
+			nanos[i] /= 2;
+			failures[i] /= 2;
+		}
+		samples /= 2;
+	}
+}
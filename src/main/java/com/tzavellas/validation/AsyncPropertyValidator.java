@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+
+import com.tzavellas.validation.validators.AsyncValidator;
+
+/**
+ * A class used to validate a JavaBean property with an {@link AsyncValidator}.
+ * 
+ * <p>Asynchronous validators are added to a {@link BeanValidator} with
+ * {@link BeanValidator#addAsync(AsyncPropertyValidator)} and are used by
+ * {@link BeanValidator#validateAsync(Object, java.util.concurrent.Executor)}.</p>
+ * 
+ * @author Spiros Tzavellas
+ *
+ * @param <T> the type (or a parent type) of the property
+ */
+public class AsyncPropertyValidator<T> {
+	
+	private final String property;
+	private final AsyncValidator<T> validator;
+	private final ValidationError validationError;
+	private final PropertyPath propertyPath;
+	
+	
+	/**
+	 * Construct an <code>AsyncPropertyValidator</code>
+	 * 
+	 * @param property the name of the property
+	 * @param validator the validator that will validate the property's value
+	 * @param error the error that will be returned if the validation fails
+	 */
+	public AsyncPropertyValidator(String property, AsyncValidator<T> validator, ValidationError error) {
+		if (property == null || validator == null || error == null) {
+			throw new IllegalArgumentException("You *must* specify: property, validator and error.");
+		}
+		this.property = property;
+		this.validator = validator;
+		this.validationError = error;
+		this.propertyPath = new PropertyPath(property);
+	}
+	
+	
+	/**
+	 * Get the name of the property this validator will validate.
+	 */
+	public String getProperty() {
+		return property;
+	}
+	
+	
+	/**
+	 * Test if the specified property value is valid
+	 * 
+	 * @param value the value of the property.
+	 * 
+	 * @return a stage that completes with null if valid else with
+	 *         a <code>ValdationError</code>.
+	 * 
+	 * @throws IllegalStateException if the validator returns a null stage
+	 */
+	public CompletionStage<ValidationError> validate(T value) {
+		CompletionStage<Boolean> check = validator.isValid(value);
+		if (check == null) {
+			throw new IllegalStateException("The AsyncValidator of property '" + property +
+					"' returned a null CompletionStage");
+		}
+		return check.thenApply(new Function<Boolean, ValidationError>() {
+			public ValidationError apply(Boolean valid) {
+				return Boolean.TRUE.equals(valid) ? null : validationError;
+			}
+		});
+	}
+	
+	
+	/**
+	 * Make the error this validator returns immutable. The
+	 * <code>BeanValidator</code> freezes the validators it is given.
+	 * 
+	 * @return the <code>this</code> object.
+	 */
+	public AsyncPropertyValidator<T> freeze() {
+		validationError.freeze();
+		return this;
+	}
+	
+	
+	/**
+	 * Whether this validator is frozen.
+	 * 
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return validationError.isFrozen();
+	}
+	
+	
+	PropertyPath getPropertyPath() {
+		return propertyPath;
+	}
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.Arrays;
+
+/**
+ * The result of the validation of a batch of objects.
+ * 
+ * <p>Only the results of the invalid objects are kept, indexed by the position
+ * of the object in the batch, so the memory used by a batch result is
+ * proportional to the number of invalid objects.</p>
+ * 
+ * @see BeanValidator#validateAll(Iterable)
+ * 
+ * @author Spiros Tzavellas
+ */
+public class BatchValidationResult {
+	
+	private int size;
+	private int invalid;
+	private int errorCount;
+	private boolean truncated;
+	private int[] indices = new int[8];
+	private ValidationResult[] results = new ValidationResult[8];
+	
+	
+	/**
+	 * Record the result of the invalid object at the specified index of the
+	 * batch. The indexes must be recorded in increasing order.
+	 */
+	void record(int index, ValidationResult result) {
+		if (invalid == indices.length) {
+			indices = Arrays.copyOf(indices, invalid * 2);
+			results = Arrays.copyOf(results, invalid * 2);
+		}
+		indices[invalid] = index;
+		results[invalid] = result;
+		errorCount += result.getErrorCount();
+		invalid++;
+	}
+	
+	
+	/**
+	 * Append the results of the specified result, that must have been recorded
+	 * for indexes greater than the indexes of this result, keeping at most
+	 * <code>maxErrors</code> errors in total.
+	 */
+	void append(BatchValidationResult other, int maxErrors) {
+		for (int i = 0; i < other.invalid; i++) {
+			int remaining = maxErrors - errorCount;
+			if (remaining <= 0) {
+				truncated = true;
+				return;
+			}
+			ValidationResult result = other.results[i];
+			if (result.getErrorCount() > remaining) {
+				result = result.truncate(remaining);
+				truncated = true;
+			}
+			record(other.indices[i], result);
+		}
+		truncated |= other.truncated;
+	}
+	
+	
+	/**
+	 * Set the number of objects in the batch.
+	 */
+	void setSize(int size) {
+		this.size = size;
+	}
+	
+	
+	/**
+	 * Mark this result as truncated.
+	 */
+	void setTruncated() {
+		truncated = true;
+	}
+	
+	
+	/**
+	 * Returns true if all the objects of the batch are valid.
+	 */
+	public boolean isValid() {
+		return invalid == 0;
+	}
+	
+	
+	/**
+	 * Returns true if at least one object of the batch is invalid.
+	 */
+	public boolean hasErrors() {
+		return ! isValid();
+	}
+	
+	
+	/**
+	 * Get the number of the objects in the batch.
+	 */
+	public int getSize() {
+		return size;
+	}
+	
+	
+	/**
+	 * Get the number of the invalid objects.
+	 */
+	public int getInvalidCount() {
+		return invalid;
+	}
+	
+	
+	/**
+	 * Get the total number of errors of the invalid objects.
+	 */
+	public int getErrorCount() {
+		return errorCount;
+	}
+	
+	
+	/**
+	 * Returns true if the validation stopped early because the maximum number
+	 * of errors was reached.
+	 * 
+	 * <p>In a truncated result, an object that is reported as valid might not have
+	 * been validated at all.</p>
+	 * 
+	 * @see BeanValidator#validateAllParallel(java.util.List, int, java.util.concurrent.Executor)
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+	
+	
+	/**
+	 * Get the indexes, in the batch, of the invalid objects in increasing order.
+	 */
+	public int[] getInvalidIndices() {
+		return Arrays.copyOf(indices, invalid);
+	}
+	
+	
+	/**
+	 * Get the result of the object at the specified index of the batch.
+	 * 
+	 * @param index the index of the object in the batch
+	 * 
+	 * @return the result of the object. If the object is valid then
+	 *         {@link ValidationResult#VALID} is returned.
+	 * 
+	 * @throws IndexOutOfBoundsException if there is no object at the specified index
+	 */
+	public ValidationResult getResult(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int i = Arrays.binarySearch(indices, 0, invalid, index);
+		return i >= 0 ? results[i] : ValidationResult.VALID;
+	}
+}
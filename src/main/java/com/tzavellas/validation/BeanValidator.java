@@ -16,14 +16,42 @@
  */
 package com.tzavellas.validation;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntBinaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * A class used to validate the properties of JavaBean objects using a
  * collection of specified <code>PropertyValidator</code>s.
  * 
+ * <p>The <code>PropertyValidator</code>s are compiled into a plan for the class
+ * of the validated objects, where each property path is resolved once. A
+ * <code>BeanValidator</code> created with {@link #forClass(Class, PropertyValidator...)}
+ * is bound to a class: its plan is compiled eagerly, so unknown properties are
+ * reported at construction time, and it can only validate instances of that
+ * class.</p>
+ * 
+ * <p>The <code>PropertyValidator</code>s are frozen when they are given to a
+ * <code>BeanValidator</code>, so they cannot be modified after they are published.
+ * A <code>BeanValidator</code> can itself be frozen with {@link #freeze()}, after
+ * which validators cannot be added. A frozen <code>BeanValidator</code> can be
+ * created once and shared, instead of being created per request.</p>
+ * 
  * <p><b>Thread safety:</b> This class is thread safe.</p>
  * 
  * @author Spiros Tzavellas
@@ -32,7 +60,29 @@ import java.util.concurrent.CopyOnWriteArrayList;
  */
 public class BeanValidator {
 	
-	private List<PropertyValidator<?>> validators;
+	/** The minimum number of objects in a chunk of a parallel validation */
+	private static final int MIN_CHUNK_SIZE = 256;
+	/** The number of chunks per thread, for load balancing */
+	private static final int CHUNKS_PER_THREAD = 4;
+	
+	/** Adds two non negative counts, without overflowing */
+	private static final IntBinaryOperator SATURATED_ADD = new IntBinaryOperator() {
+		public int applyAsInt(int a, int b) {
+			int sum = a + b;
+			return sum < 0 ? Integer.MAX_VALUE : sum;
+		}
+	};
+	
+	private final Class<?> beanClass;
+	private volatile State state;
+	private volatile AsyncPropertyValidator<?>[] asyncValidators = new AsyncPropertyValidator<?>[0];
+	
+	/**
+	 * The state of a frozen validator. This field is not volatile: the state is
+	 * immutable and safely published by its final fields, and a thread that does
+	 * not see it yet reads the same state from the volatile field.
+	 */
+	private State frozenState;
 	
 	
 	/**
@@ -40,29 +90,224 @@ public class BeanValidator {
 	 * PropertyValidators.
 	 */
 	public BeanValidator(PropertyValidator<?>...validators) {
-		this.validators = new CopyOnWriteArrayList<PropertyValidator<?>>(validators);
+		this(null, validators);
+	}
+	
+	
+	private BeanValidator(Class<?> beanClass, PropertyValidator<?>[] validators) {
+		this.beanClass = beanClass;
+		this.state = new State(beanClass, validators.clone(), false, Integer.MAX_VALUE, false);
+		for (PropertyValidator<?> v: state.validators)
+			v.freeze();
+	}
+	
+	
+	/**
+	 * Create a <code>BeanValidator</code> that is bound to the specified class.
+	 * 
+	 * <p>The property paths of the specified validators are checked against the
+	 * class, so a typo in a property name fails here instead of at the first
+	 * validation.</p>
+	 * 
+	 * @param beanClass the class of the objects to validate
+	 * @param validators the PropertyValidators to use
+	 * 
+	 * @throws IllegalArgumentException if a property of a validator does not
+	 *         exist in the specified class
+	 */
+	public static BeanValidator forClass(Class<?> beanClass, PropertyValidator<?>...validators) {
+		if (beanClass == null) {
+			throw new IllegalArgumentException("The argument 'beanClass' cannot be null");
+		}
+		return new BeanValidator(beanClass, validators);
+	}
+	
+	
+	/**
+	 * Get the class this validator is bound to.
+	 * 
+	 * @return the class or null if this validator is not bound to a class
+	 */
+	public Class<?> getBeanClass() {
+		return beanClass;
+	}
+	
+	
+	/**
+	 * Freeze this validator, so that no validators can be added and the
+	 * settings cannot be changed. Freezing is idempotent.
+	 * 
+	 * <p>The validations of a frozen validator use an immutable snapshot of
+	 * its plans, without the synchronization that a modifiable validator
+	 * needs.</p>
+	 * 
+	 * @return the <code>this</code> object.
+	 */
+	public synchronized BeanValidator freeze() {
+		State s = state;
+		if (! s.frozen) {
+			for (AsyncPropertyValidator<?> v: asyncValidators)
+				v.freeze();
+			s = new State(s);
+			state = s;
+			frozenState = s;
+		}
+		return this;
+	}
+	
+	
+	/**
+	 * Whether this validator is frozen.
+	 * 
+	 * @see #freeze()
+	 */
+	public boolean isFrozen() {
+		return currentState().frozen;
+	}
+	
+	
+	private void checkNotFrozen() {
+		if (state.frozen) {
+			throw new IllegalStateException("This BeanValidator is frozen and cannot be modified");
+		}
 	}
 	
 	
 	/**
 	 * Add a <code>PropertyValidator</code> to be used when validating objects.
+	 * The specified validator is frozen.
 	 * 
 	 * @param v the PropertyValidator to add
+	 * 
+	 * @throws IllegalArgumentException if this validator is bound to a class
+	 *         and the property of the specified validator does not exist
+	 * @throws IllegalStateException if this validator is frozen
 	 */
-	public void add(PropertyValidator<?> v) {
-		validators.add(v);
+	public synchronized void add(PropertyValidator<?> v) {
+		checkNotFrozen();
+		State s = state;
+		PropertyValidator<?>[] updated = new PropertyValidator<?>[s.validators.length + 1];
+		System.arraycopy(s.validators, 0, updated, 0, s.validators.length);
+		updated[s.validators.length] = v;
+		
+		State next = new State(beanClass, updated, s.adaptiveOrdering, s.maxErrors, s.firstErrorPerField);
+		v.freeze();
+		state = next;
 	}
 	
 	
 	/**
-	 * Validate the specified object.
+	 * Add an <code>AsyncPropertyValidator</code> to be used when validating
+	 * objects with {@link #validateAsync(Object, Executor)}. The specified
+	 * validator is frozen.
+	 * 
+	 * @param v the AsyncPropertyValidator to add
+	 * 
+	 * @throws IllegalArgumentException if this validator is bound to a class
+	 *         and the property of the specified validator does not exist
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	public synchronized void addAsync(AsyncPropertyValidator<?> v) {
+		if (v == null) {
+			throw new IllegalArgumentException("The argument 'v' cannot be null");
+		}
+		checkNotFrozen();
+		if (beanClass != null) {
+			v.getPropertyPath().bind(beanClass);
+		}
+		AsyncPropertyValidator<?>[] current = asyncValidators;
+		AsyncPropertyValidator<?>[] updated = new AsyncPropertyValidator<?>[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = v;
+		v.freeze();
+		asyncValidators = updated;
+	}
+	
+	
+	/**
+	 * Reorder the property checks of {@link #isValid(Object)} by their measured
+	 * cost and failure rate.
+	 * 
+	 * <p>When enabled, a small sample of the validations is timed and the
+	 * properties are checked in the order that rejects invalid objects with the
+	 * least work: cheap checks that are likely to fail run first. This does not
+	 * affect {@link #validate(Object)}, that always reports the errors in the
+	 * order the validators were specified.</p>
+	 * 
+	 * <p>By default adaptive ordering is disabled and the properties are checked
+	 * in the order the validators were specified.</p>
+	 * 
+	 * @param adaptive true to enable adaptive ordering
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	public synchronized void setAdaptiveOrdering(boolean adaptive) {
+		checkNotFrozen();
+		State s = state;
+		state = new State(beanClass, s.validators, adaptive, s.maxErrors, s.firstErrorPerField);
+	}
+	
+	
+	/**
+	 * Set the maximum number of errors that {@link #validate(Object)} reports
+	 * for an object.
+	 * 
+	 * <p>When the limit is reached the remaining <code>PropertyValidator</code>s
+	 * are not evaluated and the result is marked as
+	 * {@link ValidationResult#isTruncated() truncated}. A limit of <code>1</code>
+	 * stops at the first failure, but unlike {@link #isValid(Object)} it reports
+	 * the error.</p>
+	 * 
+	 * <p>By default there is no limit.</p>
+	 * 
+	 * @param maxErrors the maximum number of errors, must be positive
+	 * 
+	 * @throws IllegalArgumentException if <code>maxErrors</code> is less than 1
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	public synchronized void setMaxErrors(int maxErrors) {
+		if (maxErrors < 1) {
+			throw new IllegalArgumentException("The argument 'maxErrors' must be positive");
+		}
+		checkNotFrozen();
+		State s = state;
+		state = new State(beanClass, s.validators, s.adaptiveOrdering, maxErrors, s.firstErrorPerField);
+	}
+	
+	
+	/**
+	 * Report at most one error per property.
+	 * 
+	 * <p>When enabled, the validators of a property are not evaluated after the
+	 * first one that fails, so the errors of {@link #validate(Object)} have
+	 * distinct fields and match the entries of
+	 * {@link ValidationResult#getErrorMessages(java.util.Locale)}.</p>
+	 * 
+	 * <p>By default all the failures of a property are reported.</p>
+	 * 
+	 * @param firstErrorPerField true to report only the first error of each property
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	public synchronized void setFirstErrorPerField(boolean firstErrorPerField) {
+		checkNotFrozen();
+		State s = state;
+		state = new State(beanClass, s.validators, s.adaptiveOrdering, s.maxErrors, firstErrorPerField);
+	}
+	
+	
+	/**
+	 * Validate the specified object, stopping at the first failing
+	 * <code>PropertyValidator</code>.
 	 * 
 	 * @param bean the JavaBean to validate
 	 * 
 	 * @return true if all validations pass else false
+	 * 
+	 * @see #setAdaptiveOrdering(boolean)
 	 */
 	public boolean isValid(Object bean) {
-		return validate(bean).isValid();
+		return planFor(bean).isValid(bean);
 	}
 	
 	
@@ -71,16 +316,419 @@ public class BeanValidator {
 	 * 
 	 * @param bean the JavaBean to validate
 	 * 
-	 * @return a Collection of errors if the validation fails. An empty Collection otherwise.
+	 * @return a Collection of errors if the validation fails. If the object is valid
+	 *         the shared, immutable {@link ValidationResult#VALID} is returned.
+	 * 
+	 * @throws IllegalArgumentException if this validator is bound to a class and
+	 *         the specified object is not an instance of that class
 	 */
-	@SuppressWarnings("unchecked")
 	public ValidationResult validate(Object bean) {
-		ValidationResult result = new ValidationResult();
-		for (PropertyValidator validator: validators) {
-			ValidationError error = validator.validate(ReflectionHelper.readProperty(bean, validator.getProperty()));
-			if (error != null)
-				result.addError(error);
+		return planFor(bean).validate(bean);
+	}
+	
+	
+	/**
+	 * Validate the specified object, pushing each failure to the specified sink
+	 * as it happens, instead of collecting the failures in a result.
+	 * 
+	 * <p>Nothing is allocated for the failures, apart from boxing the rejected
+	 * values of primitive properties. The failures are pushed in the order the
+	 * validators were specified.</p>
+	 * 
+	 * @param bean the JavaBean to validate
+	 * @param sink the sink that receives the failures
+	 * 
+	 * @return true if the object is valid else false
+	 * 
+	 * @throws IllegalArgumentException if this validator is bound to a class and
+	 *         the specified object is not an instance of that class
+	 */
+	public boolean validate(Object bean, ValidationErrorSink sink) {
+		if (sink == null) {
+			throw new IllegalArgumentException("The argument 'sink' cannot be null");
+		}
+		return planFor(bean).validate(bean, sink) == 0;
+	}
+	
+	
+	/**
+	 * Validate the specified object asynchronously, using the common
+	 * <code>ForkJoinPool</code>.
+	 * 
+	 * @see #validateAsync(Object, Executor)
+	 */
+	public CompletableFuture<ValidationResult> validateAsync(Object bean) {
+		return validateAsync(bean, ForkJoinPool.commonPool());
+	}
+	
+	
+	/**
+	 * Validate the specified object asynchronously.
+	 * 
+	 * <p>The (cheap) <code>PropertyValidator</code>s run first, in a task of the
+	 * specified executor. Then the <code>AsyncPropertyValidator</code>s run
+	 * concurrently, each in its own task, so validators that block (for example on
+	 * I/O) do not wait for each other. An executor that starts a virtual thread per
+	 * task is a good fit for blocking validators.</p>
+	 * 
+	 * <p>The asynchronous validators of a property are skipped if the property already
+	 * failed a <code>PropertyValidator</code> or if its value is null. Their errors
+	 * count towards the {@linkplain #setMaxErrors(int) maximum number of errors}.</p>
+	 * 
+	 * @param bean the JavaBean to validate
+	 * @param executor the executor of the validation tasks
+	 * 
+	 * @return a future that completes with the result of the validation, where the
+	 *         errors of the asynchronous validators follow the errors of the
+	 *         <code>PropertyValidator</code>s.
+	 */
+	public CompletableFuture<ValidationResult> validateAsync(final Object bean, final Executor executor) {
+		if (bean == null) {
+			throw new IllegalArgumentException("The argument 'bean' cannot be null");
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("The argument 'executor' cannot be null");
+		}
+		return CompletableFuture.supplyAsync(new Supplier<ValidationResult>() {
+			public ValidationResult get() {
+				return validate(bean);
+			}
+		}, executor).thenCompose(new Function<ValidationResult, CompletionStage<ValidationResult>>() {
+			public CompletionStage<ValidationResult> apply(ValidationResult result) {
+				return runAsyncValidators(bean, result, executor);
+			}
+		});
+	}
+	
+	
+	private CompletableFuture<ValidationResult> runAsyncValidators(Object bean, final ValidationResult result, Executor executor) {
+		AsyncPropertyValidator<?>[] current = asyncValidators;
+		if (current.length == 0) {
+			return CompletableFuture.completedFuture(result);
+		}
+		
+		Set<String> failed = new HashSet<String>();
+		for (int i = 0; i < result.getErrorCount(); i++)
+			failed.add(result.getField(i));
+		
+		final int remaining = currentState().maxErrors - result.getErrorCount();
+		final List<CompletableFuture<ValidationError>> checks = new ArrayList<CompletableFuture<ValidationError>>();
+		for (AsyncPropertyValidator<?> validator: current) {
+			if (failed.contains(validator.getProperty()))
+				continue;
+			Object value = validator.getPropertyPath().read(bean);
+			if (value == null)
+				continue;
+			if (remaining <= 0) {
+				// the result is full, an asynchronous validator is skipped
+				result.setTruncated();
+				return CompletableFuture.completedFuture(result);
+			}
+			checks.add(check(validator, value, executor));
+		}
+		
+		return CompletableFuture.allOf(checks.toArray(new CompletableFuture<?>[checks.size()]))
+			.thenApply(new Function<Void, ValidationResult>() {
+				public ValidationResult apply(Void ignored) {
+					ValidationResult merged = result;
+					int added = 0;
+					for (CompletableFuture<ValidationError> check: checks) {
+						ValidationError error = check.join();
+						if (error == null)
+							continue;
+						if (added == remaining) {
+							merged.setTruncated();
+							break;
+						}
+						if (merged == ValidationResult.VALID)
+							merged = new ValidationResult();
+						merged.addError(error);
+						added++;
+					}
+					return merged;
+				}
+			});
+	}
+	
+	
+	/**
+	 * Run the specified asynchronous validator in a task of the specified executor.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> CompletableFuture<ValidationError> check(final AsyncPropertyValidator<T> validator,
+			final Object value, Executor executor) {
+		return CompletableFuture.supplyAsync(new Supplier<CompletionStage<ValidationError>>() {
+			public CompletionStage<ValidationError> get() {
+				return validator.validate((T) value);
+			}
+		}, executor).thenCompose(new Function<CompletionStage<ValidationError>, CompletionStage<ValidationError>>() {
+			public CompletionStage<ValidationError> apply(CompletionStage<ValidationError> check) {
+				return check;
+			}
+		});
+	}
+	
+	
+	/**
+	 * Validate the specified objects.
+	 * 
+	 * <p>The objects of a batch are usually of the same class, so the plan of
+	 * the first object is reused until an object of a different class is found.</p>
+	 * 
+	 * @param beans the JavaBeans to validate
+	 * 
+	 * @return the results of the invalid objects, indexed by their position in
+	 *         the iteration order of <code>beans</code>
+	 * 
+	 * @throws IllegalArgumentException if an object is null, or this validator is
+	 *         bound to a class and an object is not an instance of that class
+	 */
+	public BatchValidationResult validateAll(Iterable<?> beans) {
+		if (beans == null) {
+			throw new IllegalArgumentException("The argument 'beans' cannot be null");
+		}
+		return validateAll(beans.iterator());
+	}
+	
+	
+	/**
+	 * Validate the objects of the specified stream. The stream is consumed
+	 * sequentially in encounter order.
+	 * 
+	 * @param beans the JavaBeans to validate
+	 * 
+	 * @return the results of the invalid objects, indexed by their position in
+	 *         the stream
+	 * 
+	 * @see #validateAll(Iterable)
+	 */
+	public BatchValidationResult validateAll(Stream<?> beans) {
+		if (beans == null) {
+			throw new IllegalArgumentException("The argument 'beans' cannot be null");
+		}
+		return validateAll(beans.iterator());
+	}
+	
+	
+	private BatchValidationResult validateAll(Iterator<?> beans) {
+		BatchValidationResult batch = new BatchValidationResult();
+		ValidationPlan p = null;
+		int i = 0;
+		for (; beans.hasNext(); i++) {
+			Object bean = beans.next();
+			if (p == null || bean == null || bean.getClass() != p.beanClass) {
+				p = planFor(bean);
+			}
+			ValidationResult result = p.validate(bean);
+			if (result.hasErrors())
+				batch.record(i, result);
+		}
+		batch.setSize(i);
+		return batch;
+	}
+	
+	
+	/**
+	 * Validate the specified objects in parallel, using the common
+	 * <code>ForkJoinPool</code>.
+	 * 
+	 * @param beans the JavaBeans to validate
+	 * 
+	 * @see #validateAllParallel(List, int, Executor)
+	 */
+	public BatchValidationResult validateAllParallel(List<?> beans) {
+		return validateAllParallel(beans, Integer.MAX_VALUE, ForkJoinPool.commonPool());
+	}
+	
+	
+	/**
+	 * Validate the specified objects in parallel.
+	 * 
+	 * <p>The list is split into chunks that are validated by the specified executor
+	 * and the results of the chunks are merged in the order of the list. This method
+	 * blocks until all the chunks are validated.</p>
+	 * 
+	 * <p>When more than <code>maxErrors</code> errors are found the chunks stop
+	 * early and the result is {@linkplain BatchValidationResult#isTruncated() truncated}
+	 * to <code>maxErrors</code> errors. The errors of a truncated result are in input
+	 * order, but they are not necessarily the first errors of the list, since the
+	 * chunks run concurrently.</p>
+	 * 
+	 * @param beans the JavaBeans to validate
+	 * @param maxErrors the maximum number of errors to collect
+	 * @param executor the executor that validates the chunks, for example a
+	 *                 <code>ForkJoinPool</code>
+	 * 
+	 * @return the results of the invalid objects, indexed by their position in
+	 *         the list
+	 * 
+	 * @throws IllegalArgumentException if an object is null, or this validator is
+	 *         bound to a class and an object is not an instance of that class
+	 */
+	public BatchValidationResult validateAllParallel(List<?> beans, final int maxErrors, Executor executor) {
+		if (beans == null) {
+			throw new IllegalArgumentException("The argument 'beans' cannot be null");
+		}
+		if (executor == null) {
+			throw new IllegalArgumentException("The argument 'executor' cannot be null");
+		}
+		if (maxErrors < 1) {
+			throw new IllegalArgumentException("The argument 'maxErrors' must be positive");
+		}
+		
+		final List<?> list = beans instanceof RandomAccess ? beans : new ArrayList<Object>(beans);
+		int parallelism = executor instanceof ForkJoinPool
+			? ((ForkJoinPool) executor).getParallelism()
+			: Runtime.getRuntime().availableProcessors();
+		int chunkSize = Math.max(MIN_CHUNK_SIZE, list.size() / (parallelism * CHUNKS_PER_THREAD) + 1);
+		final AtomicInteger errors = new AtomicInteger();
+		final AtomicBoolean failed = new AtomicBoolean();
+		
+		List<CompletableFuture<BatchValidationResult>> chunks = new ArrayList<CompletableFuture<BatchValidationResult>>();
+		for (int from = 0; from < list.size(); from += chunkSize) {
+			final int start = from;
+			final int end = Math.min(list.size(), from + chunkSize);
+			chunks.add(CompletableFuture.supplyAsync(new Supplier<BatchValidationResult>() {
+				public BatchValidationResult get() {
+					return validateChunk(list, start, end, maxErrors, errors, failed);
+				}
+			}, executor));
+		}
+		
+		BatchValidationResult batch = new BatchValidationResult();
+		for (CompletableFuture<BatchValidationResult> chunk: chunks) {
+			try {
+				batch.append(chunk.join(), maxErrors);
+			} catch (CompletionException e) {
+				failed.set(true); // stop the remaining chunks
+				Throwable cause = e.getCause();
+				if (cause instanceof RuntimeException)
+					throw (RuntimeException) cause;
+				if (cause instanceof Error)
+					throw (Error) cause;
+				throw e;
+			}
+		}
+		batch.setSize(list.size());
+		return batch;
+	}
+	
+	
+	private BatchValidationResult validateChunk(List<?> beans, int from, int to, int maxErrors,
+			AtomicInteger errors, AtomicBoolean failed) {
+		BatchValidationResult chunk = new BatchValidationResult();
+		ValidationPlan p = null;
+		for (int i = from; i < to; i++) {
+			if (failed.get())
+				break;
+			if (errors.get() >= maxErrors) {
+				chunk.setTruncated();
+				break;
+			}
+			Object bean = beans.get(i);
+			if (p == null || bean == null || bean.getClass() != p.beanClass) {
+				p = planFor(bean);
+			}
+			ValidationResult result = p.validate(bean);
+			if (result.hasErrors()) {
+				chunk.record(i, result);
+				errors.accumulateAndGet(result.getErrorCount(), SATURATED_ADD);
+			}
+		}
+		return chunk;
+	}
+	
+	
+	/**
+	 * Get the plan for the class of the specified object. The plans of an
+	 * unbound validator are cached per class.
+	 */
+	private ValidationPlan planFor(Object bean) {
+		if (bean == null) {
+			throw new IllegalArgumentException("The argument 'bean' cannot be null");
+		}
+		State s = currentState();
+		Class<?> cls = bean.getClass();
+		
+		ValidationPlan p = s.plan;
+		if (p != null) {
+			if (p.beanClass != cls && ! beanClass.isInstance(bean)) {
+				throw new IllegalArgumentException("This validator validates objects of '" +
+						beanClass.getName() + "' and not '" + cls.getName() + "'");
+			}
+			return p;
+		}
+		
+		p = s.plans.get(cls);
+		if (p == null) {
+			p = s.compile(cls, false);
+			ValidationPlan existing = s.plans.putIfAbsent(cls, p);
+			if (existing != null)
+				p = existing;
+		}
+		return p;
+	}
+	
+	
+	private State currentState() {
+		State s = frozenState;
+		return s != null ? s : state;
+	}
+	
+	
+	// -----------------------------------------------------------------------
+	
+	/**
+	 * An immutable snapshot of the validators and the settings of a
+	 * <code>BeanValidator</code>, with the plans compiled for them.
+	 * 
+	 * <p>Every modification publishes a new snapshot, so the plans of the old
+	 * snapshot are discarded and a plan is never used with other settings.</p>
+	 */
+	private static final class State {
+		
+		final PropertyValidator<?>[] validators;
+		final boolean adaptiveOrdering;
+		final int maxErrors;
+		final boolean firstErrorPerField;
+		final boolean frozen;
+		
+		/** The plan of a bound validator, or null */
+		final ValidationPlan plan;
+		
+		/** The plans of the classes validated by an unbound validator */
+		final ConcurrentHashMap<Class<?>, ValidationPlan> plans;
+		
+		/**
+		 * @throws IllegalArgumentException if <code>beanClass</code> is not null
+		 *         and a property does not exist in it
+		 */
+		State(Class<?> beanClass, PropertyValidator<?>[] validators, boolean adaptiveOrdering,
+				int maxErrors, boolean firstErrorPerField) {
+			this.validators = validators;
+			this.adaptiveOrdering = adaptiveOrdering;
+			this.maxErrors = maxErrors;
+			this.firstErrorPerField = firstErrorPerField;
+			this.frozen = false;
+			this.plan = beanClass != null ? compile(beanClass, true) : null;
+			this.plans = new ConcurrentHashMap<Class<?>, ValidationPlan>();
+		}
+		
+		/**
+		 * Create a frozen copy of the specified state, that keeps its plans.
+		 */
+		State(State s) {
+			this.validators = s.validators;
+			this.adaptiveOrdering = s.adaptiveOrdering;
+			this.maxErrors = s.maxErrors;
+			this.firstErrorPerField = s.firstErrorPerField;
+			this.frozen = true;
+			this.plan = s.plan;
+			this.plans = s.plans;
+		}
+		
+		ValidationPlan compile(Class<?> cls, boolean strict) {
+			return new ValidationPlan(cls, validators, strict, adaptiveOrdering, maxErrors, firstErrorPerField);
 		}
-		return result;
 	}
 }
@@ -0,0 +1,417 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A <code>PropertyValidator</code> that validates the elements of a collection
+ * property, for example the <code>sku</code> of every item of an order.
+ * 
+ * <p>The property can be a <code>List</code>, an array of objects or any other
+ * <code>Iterable</code>, or a <code>Map</code> whose values are validated. The
+ * elements are iterated in place, the collection is not copied. Null elements
+ * and a null collection are not validated, use a required validator on the
+ * collection property to reject a null collection.</p>
+ * 
+ * <p>The properties of the element validators are relative to the elements, and
+ * the failures are reported with index-qualified fields, such as
+ * <code>items[17].sku</code>, or <code>prices[EUR].amount</code> for the values
+ * of a map. The element validators are compiled into a plan once per element
+ * class, so the accessors are not resolved again for each element. A
+ * <code>BeanValidator</code> created with <code>forClass</code> also checks the
+ * properties of the elements, if the element type is declared by the type of
+ * the collection property, such as <code>List&lt;Item&gt;</code> or
+ * <code>Item[]</code>.</p>
+ * 
+ * <p>The error code and the default message of the element errors can be
+ * overridden with {@link #setErrorCode(String)} and
+ * {@link #setDefaultErrorMessage(String)}.</p>
+ * 
+ * <p>Instances are created with {@link #elements(String, PropertyValidator...)}
+ * and {@link #mapValues(String, PropertyValidator...)}, or with the
+ * <code>each</code> and <code>eachValue</code> methods of the validation DSL.</p>
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see com.tzavellas.validation.property.Validators
+ */
+public final class ElementsValidator extends PropertyValidator<Object> {
+	
+	private final PropertyValidator<?>[] validators;
+	private final boolean mapValues;
+	private String errorCode;
+	private String defaultMessage;
+	
+	/**
+	 * The plans of the element classes, for collecting all the errors of
+	 * a property and for stopping at the first error of a property.
+	 */
+	private final ClassValue<ValidationPlan[]> plans = new ClassValue<ValidationPlan[]>() {
+		@Override
+		protected ValidationPlan[] computeValue(Class<?> cls) {
+			return new ValidationPlan[2];
+		}
+	};
+	
+	private final ElementVisitor validity = new ElementVisitor() {
+		@Override
+		boolean visit(int index, Object key, Object element) {
+			return planFor(element, false).isValid(element);
+		}
+	};
+	
+	
+	private ElementsValidator(String property, boolean mapValues, PropertyValidator<?>[] validators) {
+		super(property);
+		if (property == null) {
+			throw new IllegalArgumentException("The argument 'property' cannot be null");
+		}
+		if (validators == null) {
+			throw new IllegalArgumentException("The argument 'validators' cannot be null");
+		}
+		this.mapValues = mapValues;
+		this.validators = validators.clone();
+	}
+	
+	
+	/**
+	 * Validate the elements of a <code>List</code>, array or <code>Iterable</code>
+	 * property with the specified validators.
+	 * 
+	 * @param property the name of the collection property
+	 * @param validators the validators of the properties of the elements
+	 */
+	public static ElementsValidator elements(String property, PropertyValidator<?>...validators) {
+		return new ElementsValidator(property, false, validators);
+	}
+	
+	
+	/**
+	 * Validate the values of a <code>Map</code> property with the specified
+	 * validators.
+	 * 
+	 * @param property the name of the map property
+	 * @param validators the validators of the properties of the values
+	 */
+	public static ElementsValidator mapValues(String property, PropertyValidator<?>...validators) {
+		return new ElementsValidator(property, true, validators);
+	}
+	
+	
+	/**
+	 * Test if all the elements of the specified collection are valid.
+	 */
+	@Override
+	public boolean isValid(Object value) {
+		return value == null || forEach(value, validity);
+	}
+	
+	
+	/**
+	 * Validate the elements of the specified collection.
+	 * 
+	 * @return null if all the elements are valid, else the error of the first
+	 *         failure with an index-qualified field.
+	 */
+	@Override
+	public ValidationError validate(Object value) {
+		ValidationResult result = value == null ? null : validate(value, null, 1, false);
+		return result == null ? null : result.getErrors().iterator().next();
+	}
+	
+	
+	/**
+	 * Validate the elements of the specified collection, adding at most
+	 * <code>limit</code> errors to the specified result.
+	 * 
+	 * @return the result, that is created at the first error
+	 */
+	ValidationResult validate(Object collection, ValidationResult result, int limit, boolean firstErrorPerField) {
+		ResultCollector collector = new ResultCollector(result, limit, firstErrorPerField);
+		forEach(collection, collector);
+		return collector.result;
+	}
+	
+	
+	/**
+	 * Validate the elements of the specified collection, pushing at most
+	 * <code>limit</code> failures of the specified object to the specified sink.
+	 * 
+	 * @return the number of failures
+	 */
+	int validate(Object bean, Object collection, ValidationErrorSink sink, int limit, boolean firstErrorPerField) {
+		SinkCollector collector = new SinkCollector(bean, sink, limit, firstErrorPerField);
+		forEach(collection, collector);
+		return limit - collector.remaining;
+	}
+	
+	
+	/**
+	 * Freeze this validator and the validators of the elements.
+	 */
+	@Override
+	public ElementsValidator freeze() {
+		for (PropertyValidator<?> v: validators)
+			v.freeze();
+		super.freeze();
+		return this;
+	}
+	
+	
+	/**
+	 * Set the error code of the errors of the elements, instead of the error
+	 * codes of the element validators.
+	 * 
+	 * @param errorCode the error code, or null to keep the codes of the
+	 *                  element validators
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	@Override
+	public void setErrorCode(String errorCode) {
+		checkNotFrozen();
+		this.errorCode = errorCode;
+	}
+	
+	
+	/**
+	 * Set the default message of the errors of the elements, instead of the
+	 * default messages of the element validators.
+	 * 
+	 * @param message the default message, or null to keep the messages of the
+	 *                element validators
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
+	 */
+	@Override
+	public void setDefaultErrorMessage(String message) {
+		checkNotFrozen();
+		this.defaultMessage = message;
+	}
+	
+	
+	/**
+	 * Check that the properties of the element validators exist in the
+	 * element type of the specified collection type. Nothing is checked if
+	 * the element type is not known.
+	 * 
+	 * @param collectionType the declared type of the collection property,
+	 *                       null if it is not known
+	 * 
+	 * @throws IllegalArgumentException if a property does not exist
+	 */
+	void bindElements(Type collectionType) {
+		Class<?> elementClass = elementClass(collectionType);
+		if (elementClass != null && elementClass != Object.class)
+			new ValidationPlan(elementClass, validators, true, false, Integer.MAX_VALUE, false);
+	}
+	
+	
+	/**
+	 * Get the declared class of the elements of the specified collection type.
+	 * 
+	 * @return the class or null if it is not known
+	 */
+	private Class<?> elementClass(Type type) {
+		Type element = null;
+		if (type instanceof Class && ((Class<?>) type).isArray()) {
+			element = ((Class<?>) type).getComponentType();
+		} else if (type instanceof GenericArrayType) {
+			element = ((GenericArrayType) type).getGenericComponentType();
+		} else if (type instanceof ParameterizedType) {
+			ParameterizedType generic = (ParameterizedType) type;
+			Type raw = generic.getRawType();
+			Type[] args = generic.getActualTypeArguments();
+			if (mapValues && raw instanceof Class && Map.class.isAssignableFrom((Class<?>) raw) && args.length == 2) {
+				element = args[1];
+			} else if (! mapValues && raw instanceof Class && Iterable.class.isAssignableFrom((Class<?>) raw) && args.length == 1) {
+				element = args[0];
+			}
+		}
+		if (element instanceof WildcardType)
+			element = ((WildcardType) element).getUpperBounds()[0];
+		if (element instanceof ParameterizedType)
+			element = ((ParameterizedType) element).getRawType();
+		return element instanceof Class && ! ((Class<?>) element).isPrimitive() ? (Class<?>) element : null;
+	}
+	
+	
+	/**
+	 * Get the plan of the class of the specified element.
+	 */
+	private ValidationPlan planFor(Object element, boolean firstErrorPerField) {
+		ValidationPlan[] cached = plans.get(element.getClass());
+		int i = firstErrorPerField ? 1 : 0;
+		// racy single-check, ValidationPlan is safe to publish without synchronization
+		ValidationPlan p = cached[i];
+		if (p == null) {
+			p = new ValidationPlan(element.getClass(), validators, false, false, Integer.MAX_VALUE, firstErrorPerField);
+			cached[i] = p;
+		}
+		return p;
+	}
+	
+	
+	/**
+	 * Visit the non null elements of the specified collection.
+	 * 
+	 * @return false if the visitor stopped the iteration
+	 */
+	private boolean forEach(Object collection, ElementVisitor visitor) {
+		if (mapValues) {
+			if (! (collection instanceof Map)) {
+				throw new IllegalArgumentException("The property '" + property + "' is not a Map");
+			}
+			for (Map.Entry<?, ?> e: ((Map<?, ?>) collection).entrySet()) {
+				if (e.getValue() != null && ! visitor.visit(-1, e.getKey(), e.getValue()))
+					return false;
+			}
+		} else if (collection instanceof List && collection instanceof RandomAccess) {
+			List<?> list = (List<?>) collection;
+			for (int i = 0, n = list.size(); i < n; i++) {
+				Object element = list.get(i);
+				if (element != null && ! visitor.visit(i, null, element))
+					return false;
+			}
+		} else if (collection instanceof Object[]) {
+			Object[] array = (Object[]) collection;
+			for (int i = 0; i < array.length; i++) {
+				if (array[i] != null && ! visitor.visit(i, null, array[i]))
+					return false;
+			}
+		} else if (collection instanceof Iterable) {
+			int i = 0;
+			for (Object element: (Iterable<?>) collection) {
+				if (element != null && ! visitor.visit(i, null, element))
+					return false;
+				i++;
+			}
+		} else {
+			throw new IllegalArgumentException("The property '" + property +
+					"' is not a List, an array of objects or an Iterable");
+		}
+		return true;
+	}
+	
+	
+	/**
+	 * The index-qualified name of an element, such as <code>items[3]</code>.
+	 */
+	private String elementName(int index, Object key) {
+		return property + '[' + (mapValues ? String.valueOf(key) : Integer.toString(index)) + ']';
+	}
+	
+	
+	// -----------------------------------------------------------------------
+	
+	private abstract static class ElementVisitor {
+		
+		/**
+		 * Visit an element, that has the specified index, or the specified
+		 * key if it is a value of a map.
+		 * 
+		 * @return false to stop the iteration
+		 */
+		abstract boolean visit(int index, Object key, Object element);
+	}
+	
+	
+	/**
+	 * Adds the errors of the elements to a result.
+	 */
+	private final class ResultCollector extends ElementVisitor {
+		
+		ValidationResult result;
+		int remaining;
+		final boolean firstErrorPerField;
+		
+		ResultCollector(ValidationResult result, int limit, boolean firstErrorPerField) {
+			this.result = result;
+			this.remaining = limit;
+			this.firstErrorPerField = firstErrorPerField;
+		}
+		
+		@Override
+		boolean visit(int index, Object key, Object element) {
+			if (remaining == 0) {
+				// an element is left unvalidated
+				result.setTruncated();
+				return false;
+			}
+			ValidationResult errors = planFor(element, firstErrorPerField).validate(element);
+			if (errors.hasErrors()) {
+				if (result == null)
+					result = new ValidationResult();
+				int added = result.addErrors(elementName(index, key), errors, remaining, errorCode, defaultMessage);
+				remaining -= added;
+				if (added < errors.getErrorCount()) {
+					result.setTruncated();
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	
+	/**
+	 * Pushes the failures of the elements, with index-qualified fields, to a sink
+	 * as failures of the object that has the collection.
+	 */
+	private final class SinkCollector extends ElementVisitor implements ValidationErrorSink {
+		
+		final Object bean;
+		final ValidationErrorSink sink;
+		final boolean firstErrorPerField;
+		int remaining;
+		int index;
+		Object key;
+		String name;
+		
+		SinkCollector(Object bean, ValidationErrorSink sink, int limit, boolean firstErrorPerField) {
+			this.bean = bean;
+			this.sink = sink;
+			this.remaining = limit;
+			this.firstErrorPerField = firstErrorPerField;
+		}
+		
+		@Override
+		boolean visit(int index, Object key, Object element) {
+			this.index = index;
+			this.key = key;
+			this.name = null;
+			planFor(element, firstErrorPerField).validate(element, this);
+			return remaining > 0;
+		}
+		
+		public void reject(Object element, ValidationError error, Object rejectedValue) {
+			if (remaining == 0)
+				return;
+			if (name == null)
+				name = elementName(index, key);
+			sink.reject(bean, new ValidationError(name + '.' + error.getField(), error, errorCode, defaultMessage), rejectedValue);
+			remaining--;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+/**
+ * A {@link PropertyAccessor} for a property of type <code>long</code>, that
+ * can also read the value without boxing it.
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see PropertyAccessors#GENERATED
+ */
+public interface LongPropertyAccessor extends PropertyAccessor {
+	
+	/**
+	 * Read the value of the property from the specified bean.
+	 * 
+	 * @param bean the object to read the property from. This parameter is
+	 *             never null and is always an instance of the class the
+	 *             accessor was created for.
+	 * 
+	 * @return the value of the property
+	 */
+	long readLong(Object bean);
+}
@@ -0,0 +1,191 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A message pattern that is parsed once and then rendered many times.
+ * 
+ * <p>The pattern has the syntax of {@link MessageFormat} and a template renders
+ * the same text as <code>new MessageFormat(pattern, locale).format(args)</code>.
+ * Patterns where every argument is a plain <code>{n}</code> are split into
+ * literal segments and argument indexes, and are rendered by appending to a
+ * <code>StringBuilder</code>, unless a <code>Number</code> or a <code>Date</code>
+ * argument needs to be formatted for the locale. In that case, and for patterns
+ * with format types (for example <code>{0,number,#.##}</code>), the template
+ * delegates to a <code>MessageFormat</code> that is parsed once.</p>
+ * 
+ * <p>Like Spring's <code>MessageSource</code>, a pattern that is not a valid
+ * <code>MessageFormat</code> pattern is rendered as is.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+public final class MessageTemplate {
+	
+	private final String pattern;
+	
+	/** The literals around the arguments, or null if the pattern is not simple */
+	private final String[] literals;
+	private final int[] indexes;
+	
+	/** The format of the pattern, or null if the pattern is invalid (guarded by itself) */
+	private final MessageFormat format;
+	
+	
+	private MessageTemplate(String pattern, String[] literals, int[] indexes, MessageFormat format) {
+		this.pattern = pattern;
+		this.literals = literals;
+		this.indexes = indexes;
+		this.format = format;
+	}
+	
+	
+	/**
+	 * Parse the specified pattern.
+	 * 
+	 * @param pattern a <code>MessageFormat</code> pattern
+	 * @param locale the locale used to format numbers and dates. If null the
+	 *               default locale is used.
+	 */
+	public static MessageTemplate compile(String pattern, Locale locale) {
+		if (pattern == null) {
+			throw new IllegalArgumentException("The argument 'pattern' cannot be null");
+		}
+		MessageFormat format;
+		try {
+			format = new MessageFormat(pattern, locale != null ? locale : Locale.getDefault());
+		} catch (IllegalArgumentException e) {
+			return new MessageTemplate(pattern, null, null, null);
+		}
+		
+		List<String> literals = new ArrayList<String>();
+		List<Integer> indexes = new ArrayList<Integer>();
+		StringBuilder literal = new StringBuilder();
+		boolean inQuote = false;
+		for (int i = 0; i < pattern.length(); i++) {
+			char c = pattern.charAt(i);
+			if (c == '\'') {
+				if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+					literal.append(c);
+					i++;
+				} else {
+					inQuote = ! inQuote;
+				}
+			} else if (c == '{' && ! inQuote) {
+				int end = i + 1;
+				while (end < pattern.length() && pattern.charAt(end) >= '0' && pattern.charAt(end) <= '9')
+					end++;
+				if (end == i + 1 || end == pattern.length() || pattern.charAt(end) != '}' || end - i > 10) {
+					// a format type or something MessageFormat parses differently
+					return new MessageTemplate(pattern, null, null, format);
+				}
+				literals.add(literal.toString());
+				literal.setLength(0);
+				indexes.add(Integer.valueOf(pattern.substring(i + 1, end)));
+				i = end;
+			} else {
+				literal.append(c);
+			}
+		}
+		literals.add(literal.toString());
+		
+		int[] array = new int[indexes.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = indexes.get(i);
+		return new MessageTemplate(pattern, literals.toArray(new String[literals.size()]), array, format);
+	}
+	
+	
+	/**
+	 * Get the pattern of this template.
+	 */
+	public String getPattern() {
+		return pattern;
+	}
+	
+	
+	/**
+	 * Render this template with the specified arguments.
+	 * 
+	 * @param args the arguments, may be null
+	 */
+	public String format(Object... args) {
+		if (literals != null && literals.length == 1)
+			return literals[0];
+		return formatTo(new StringBuilder(pattern.length() + 16), args).toString();
+	}
+	
+	
+	/**
+	 * Render this template with the specified arguments, appending the text
+	 * to the specified builder, so that a builder can be reused for many
+	 * messages.
+	 * 
+	 * @param sb the builder to append to
+	 * @param args the arguments, may be null
+	 * 
+	 * @return the specified builder
+	 */
+	public StringBuilder formatTo(StringBuilder sb, Object... args) {
+		if (format == null)
+			return sb.append(pattern);
+		if (literals == null || needsFormat(args)) {
+			synchronized (format) {
+				return sb.append(format.format(args));
+			}
+		}
+		
+		sb.append(literals[0]);
+		for (int i = 0; i < indexes.length; i++) {
+			int index = indexes[i];
+			if (args == null || index >= args.length) {
+				sb.append('{').append(index).append('}');
+			} else {
+				sb.append(args[index]);
+			}
+			sb.append(literals[i + 1]);
+		}
+		return sb;
+	}
+	
+	
+	/**
+	 * Whether an argument of the pattern is formatted for the locale.
+	 */
+	private boolean needsFormat(Object[] args) {
+		if (args == null)
+			return false;
+		for (int index: indexes) {
+			if (index < args.length && (args[index] instanceof Number || args[index] instanceof Date))
+				return true;
+		}
+		return false;
+	}
+	
+	
+	@Override
+	public String toString() {
+		return pattern;
+	}
+}
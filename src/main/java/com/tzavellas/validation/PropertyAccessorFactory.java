@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.lang.reflect.Method;
+
+/**
+ * Creates the {@link PropertyAccessor}s that are used to read the values
+ * of the properties under validation.
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see PropertyAccessors
+ */
+public interface PropertyAccessorFactory {
+	
+	/**
+	 * Create a <code>PropertyAccessor</code> that invokes the specified
+	 * read method.
+	 * 
+	 * @param readMethod the getter of the property, as returned by
+	 *                   {@link java.beans.PropertyDescriptor#getReadMethod()}
+	 */
+	PropertyAccessor createAccessor(Method readMethod);
+}
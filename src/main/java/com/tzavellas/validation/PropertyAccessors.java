@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * The {@link PropertyAccessorFactory} implementations that come with the library.
+ * 
+ * <p>By default the properties are read using {@link #GENERATED} accessors. To
+ * use the reflective accessors, either set the system property
+ * <code>com.tzavellas.validation.propertyAccess</code> to <code>reflection</code>
+ * or call {@link #setDefaultFactory(PropertyAccessorFactory)} before any
+ * validation takes place.</p>
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see PropertyAccessor
+ */
+public abstract class PropertyAccessors {
+	
+	/**
+	 * A factory that creates accessors that call the read method using
+	 * {@link Method#invoke(Object, Object...)}.
+	 */
+	public static final PropertyAccessorFactory REFLECTION = new ReflectiveAccessorFactory();
+	
+	/**
+	 * A factory that spins a direct accessor class for each read method using
+	 * the {@link LambdaMetafactory}, so reading a property costs the same as
+	 * calling the getter.
+	 * 
+	 * <p>The accessors of <code>int</code>, <code>long</code> and <code>double</code>
+	 * properties also implement {@link IntPropertyAccessor}, {@link LongPropertyAccessor}
+	 * and {@link DoublePropertyAccessor} respectively, so the values can be read
+	 * without boxing.</p>
+	 * 
+	 * <p>If an accessor cannot be generated (for example when the read method
+	 * is not public or its class is not visible from the class loader of this
+	 * library) the factory falls back to a {@link #REFLECTION} accessor.</p>
+	 * 
+	 * <p>Like the {@link #REFLECTION} accessors, the generated accessors wrap
+	 * any exception of the read method in a <code>RuntimeException</code>, so
+	 * the exceptions do not depend on the kind of the accessor.</p>
+	 */
+	public static final PropertyAccessorFactory GENERATED = new GeneratedAccessorFactory();
+	
+	private static volatile PropertyAccessorFactory defaultFactory =
+		"reflection".equals(System.getProperty("com.tzavellas.validation.propertyAccess"))
+			? REFLECTION : GENERATED;
+	
+	private PropertyAccessors() { }
+	
+	
+	/**
+	 * Get the factory that is used to create the accessors of the properties
+	 * under validation.
+	 */
+	public static PropertyAccessorFactory getDefaultFactory() {
+		return defaultFactory;
+	}
+	
+	
+	/**
+	 * Set the factory that is used to create the accessors of the properties
+	 * under validation.
+	 * 
+	 * <p>The accessors are cached, so this method must be called before any
+	 * validation takes place. Accessors that were created before the call are
+	 * not replaced.</p>
+	 * 
+	 * @param factory the new default factory
+	 */
+	public static void setDefaultFactory(PropertyAccessorFactory factory) {
+		if (factory == null) {
+			throw new IllegalArgumentException("The argument 'factory' cannot be null");
+		}
+		defaultFactory = factory;
+	}
+	
+	
+	// -----------------------------------------------------------------------
+	
+	private static final class ReflectiveAccessorFactory implements PropertyAccessorFactory {
+		public PropertyAccessor createAccessor(Method readMethod) {
+			return new ReflectiveAccessor(readMethod);
+		}
+		@Override
+		public String toString() { return "REFLECTION"; }
+	}
+	
+	private static final class ReflectiveAccessor implements PropertyAccessor {
+		
+		private final Method getter;
+		
+		ReflectiveAccessor(Method getter) {
+			this.getter = getter;
+		}
+		
+		public Object read(Object bean) {
+			try {
+				return getter.invoke(bean);
+				
+			} catch (IllegalAccessException e) {
+				throw new RuntimeException("The method '" + getter + "' is not accessible", e);
+			} catch (InvocationTargetException e) {
+				throw readFailure(getter, e.getTargetException());
+			}
+		}
+	}
+	
+	
+	private static final class GeneratedAccessorFactory implements PropertyAccessorFactory {
+		
+		private static final MethodType FACTORY_TYPE = MethodType.methodType(Function.class);
+		private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
+		private static final MethodType INT_FACTORY_TYPE = MethodType.methodType(ToIntFunction.class);
+		private static final MethodType INT_READ_TYPE = MethodType.methodType(int.class, Object.class);
+		private static final MethodType LONG_FACTORY_TYPE = MethodType.methodType(ToLongFunction.class);
+		private static final MethodType LONG_READ_TYPE = MethodType.methodType(long.class, Object.class);
+		private static final MethodType DOUBLE_FACTORY_TYPE = MethodType.methodType(ToDoubleFunction.class);
+		private static final MethodType DOUBLE_READ_TYPE = MethodType.methodType(double.class, Object.class);
+		
+		public PropertyAccessor createAccessor(Method readMethod) {
+			if (isVisible(readMethod.getDeclaringClass()) && isVisible(readMethod.getReturnType())) {
+				try {
+					return generate(readMethod);
+				} catch (IllegalAccessException e) {
+					// cannot link to the read method, use reflection instead
+				} catch (LambdaConversionException e) {
+					// cannot link to the read method, use reflection instead
+				}
+			}
+			return REFLECTION.createAccessor(readMethod);
+		}
+		
+		@SuppressWarnings("unchecked")
+		private PropertyAccessor generate(Method readMethod) throws IllegalAccessException, LambdaConversionException {
+			MethodHandles.Lookup lookup = MethodHandles.lookup();
+			MethodHandle getter = lookup.unreflect(readMethod);
+			Class<?> type = readMethod.getReturnType();
+			if (type == int.class) {
+				return new IntAccessor(readMethod, (ToIntFunction<Object>) link(lookup, getter,
+						"applyAsInt", INT_FACTORY_TYPE, INT_READ_TYPE));
+			}
+			if (type == long.class) {
+				return new LongAccessor(readMethod, (ToLongFunction<Object>) link(lookup, getter,
+						"applyAsLong", LONG_FACTORY_TYPE, LONG_READ_TYPE));
+			}
+			if (type == double.class) {
+				return new DoubleAccessor(readMethod, (ToDoubleFunction<Object>) link(lookup, getter,
+						"applyAsDouble", DOUBLE_FACTORY_TYPE, DOUBLE_READ_TYPE));
+			}
+			return new ObjectAccessor(readMethod, (Function<Object, Object>) link(lookup, getter,
+					"apply", FACTORY_TYPE, READ_TYPE));
+		}
+		
+		private static Object link(MethodHandles.Lookup lookup, MethodHandle getter, String name,
+				MethodType factoryType, MethodType readType) throws LambdaConversionException {
+			// primitive values are boxed only by the Object accessors
+			MethodType instantiated = readType.returnType().isPrimitive() ? getter.type() : getter.type().wrap();
+			CallSite site = LambdaMetafactory.metafactory(lookup, name,
+					factoryType, readType, getter, instantiated);
+			try {
+				return site.getTarget().invoke();
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable e) {
+				// the factory of a non-capturing lambda does not throw checked exceptions
+				throw new IllegalStateException(e);
+			}
+		}
+		
+		/**
+		 * The generated class is defined in the class loader of this library,
+		 * so it can only link to classes that are visible from that loader.
+		 */
+		private static boolean isVisible(Class<?> cls) {
+			if (cls.isPrimitive())
+				return true;
+			try {
+				return Class.forName(cls.getName(), false, PropertyAccessors.class.getClassLoader()) == cls;
+			} catch (ClassNotFoundException e) {
+				return false;
+			}
+		}
+		
+		@Override
+		public String toString() { return "GENERATED"; }
+	}
+	
+	
+	/**
+	 * Wrap an exception of the read method, like {@link ReflectiveAccessor} does.
+	 */
+	private static RuntimeException readFailure(Method getter, Throwable e) {
+		return new RuntimeException("Exception while invoking method '" + getter + "'", e);
+	}
+	
+	
+	private static final class ObjectAccessor implements PropertyAccessor {
+		
+		private final Method method;
+		private final Function<Object, Object> getter;
+		
+		ObjectAccessor(Method method, Function<Object, Object> getter) {
+			this.method = method;
+			this.getter = getter;
+		}
+		
+		public Object read(Object bean) {
+			try {
+				return getter.apply(bean);
+			} catch (Throwable e) {
+				throw readFailure(method, e);
+			}
+		}
+	}
+	
+	private static final class IntAccessor implements IntPropertyAccessor {
+		
+		private final Method method;
+		private final ToIntFunction<Object> getter;
+		
+		IntAccessor(Method method, ToIntFunction<Object> getter) {
+			this.method = method;
+			this.getter = getter;
+		}
+		
+		public Object read(Object bean) {
+			return Integer.valueOf(readInt(bean));
+		}
+		
+		public int readInt(Object bean) {
+			try {
+				return getter.applyAsInt(bean);
+			} catch (Throwable e) {
+				throw readFailure(method, e);
+			}
+		}
+	}
+	
+	private static final class LongAccessor implements LongPropertyAccessor {
+		
+		private final Method method;
+		private final ToLongFunction<Object> getter;
+		
+		LongAccessor(Method method, ToLongFunction<Object> getter) {
+			this.method = method;
+			this.getter = getter;
+		}
+		
+		public Object read(Object bean) {
+			return Long.valueOf(readLong(bean));
+		}
+		
+		public long readLong(Object bean) {
+			try {
+				return getter.applyAsLong(bean);
+			} catch (Throwable e) {
+				throw readFailure(method, e);
+			}
+		}
+	}
+	
+	private static final class DoubleAccessor implements DoublePropertyAccessor {
+		
+		private final Method method;
+		private final ToDoubleFunction<Object> getter;
+		
+		DoubleAccessor(Method method, ToDoubleFunction<Object> getter) {
+			this.method = method;
+			this.getter = getter;
+		}
+		
+		public Object read(Object bean) {
+			return Double.valueOf(readDouble(bean));
+		}
+		
+		public double readDouble(Object bean) {
+			try {
+				return getter.applyAsDouble(bean);
+			} catch (Throwable e) {
+				throw readFailure(method, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,254 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A (possibly nested) property path, such as <code>address.city</code>,
+ * that is parsed once and then compiled into a chain of
+ * {@link PropertyAccessor}s.
+ * 
+ * <p>The chain is resolved against the declared types of the properties, starting
+ * from the class of the root object, so it can be reused for every object of that
+ * class. The last compiled chain is cached, so reading a path from objects of the
+ * same class does not split strings or lookup any caches. If the declared type of
+ * an intermediate property does not have the next property (for example when it
+ * is declared as <code>Object</code>) the rest of the path is resolved against the
+ * runtime classes of the values.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+final class PropertyPath {
+	
+	private final String path;
+	private final String[] properties;
+	
+	/** The chain of the last root class, written racily (Chain is immutable) */
+	private Chain chain;
+	
+	
+	PropertyPath(String path) {
+		this.path = path;
+		this.properties = split(path);
+	}
+	
+	
+	/**
+	 * Get the property path as specified at construction time.
+	 */
+	String getPath() {
+		return path;
+	}
+	
+	
+	/**
+	 * Read the value of this path from the specified object.
+	 * 
+	 * @throws IllegalArgumentException if a property in the path does not exist
+	 * @throws IllegalStateException if an intermediate property is null
+	 */
+	Object read(Object root) {
+		Chain c = chain;
+		Class<?> rootClass = root.getClass();
+		if (c == null || c.rootClass != rootClass) {
+			c = compile(rootClass);
+			chain = c;
+		}
+		return read(root, c);
+	}
+	
+	
+	/**
+	 * Read the value of this path from the specified object using a chain
+	 * compiled by this path for the class (or a super-class) of the object.
+	 * 
+	 * @throws IllegalArgumentException if a property in the path does not exist
+	 * @throws IllegalStateException if an intermediate property is null
+	 */
+	Object read(Object root, Chain c) {
+		Object parent = readParent(root, c);
+		int last = c.accessors.length - 1;
+		PropertyAccessor accessor = c.accessors[last];
+		if (accessor == null) {
+			accessor = ReflectionHelper.getAccessor(parent.getClass(), properties[last]);
+		}
+		return accessor.read(parent);
+	}
+	
+	
+	/**
+	 * Read the value of this path, without boxing it, using a chain of kind
+	 * {@link Chain#INT}.
+	 */
+	int readInt(Object root, Chain c) {
+		return ((IntPropertyAccessor) c.accessors[c.accessors.length - 1]).readInt(readParent(root, c));
+	}
+	
+	
+	/**
+	 * Read the value of this path, without boxing it, using a chain of kind
+	 * {@link Chain#LONG}.
+	 */
+	long readLong(Object root, Chain c) {
+		return ((LongPropertyAccessor) c.accessors[c.accessors.length - 1]).readLong(readParent(root, c));
+	}
+	
+	
+	/**
+	 * Read the value of this path, without boxing it, using a chain of kind
+	 * {@link Chain#DOUBLE}.
+	 */
+	double readDouble(Object root, Chain c) {
+		return ((DoublePropertyAccessor) c.accessors[c.accessors.length - 1]).readDouble(readParent(root, c));
+	}
+	
+	
+	/**
+	 * Read the object that has the last property of this path.
+	 */
+	private Object readParent(Object root, Chain c) {
+		PropertyAccessor[] accessors = c.accessors;
+		Object value = root;
+		for (int i = 0; i < accessors.length - 1; i++) {
+			PropertyAccessor accessor = accessors[i];
+			if (accessor == null) {
+				accessor = ReflectionHelper.getAccessor(value.getClass(), properties[i]);
+			}
+			value = accessor.read(value);
+			if (value == null) {
+				throw new IllegalStateException("Found null in '" + properties[i] +
+						"' while trying to read ' " + path + "'");
+			}
+		}
+		return value;
+	}
+	
+	
+	/**
+	 * Compile the chain of accessors for the specified root class. Properties
+	 * that cannot be resolved against the declared types are left null, to
+	 * be resolved at read time.
+	 */
+	Chain compile(Class<?> rootClass) {
+		return compile(rootClass, false);
+	}
+	
+	
+	/**
+	 * Compile the chain of accessors for the specified root class, failing if
+	 * a property does not exist.
+	 * 
+	 * <p>Only the properties of values declared as <code>Object</code> are left
+	 * to be resolved at read time, since their type is not known.</p>
+	 * 
+	 * @throws IllegalArgumentException if a property in the path does not exist
+	 */
+	Chain bind(Class<?> rootClass) {
+		return compile(rootClass, true);
+	}
+	
+	
+	private Chain compile(Class<?> rootClass, boolean strict) {
+		PropertyAccessor[] accessors = new PropertyAccessor[properties.length];
+		Class<?> type = rootClass;
+		Type valueType = null;
+		for (int i = 0; i < properties.length; i++) {
+			ReflectionHelper.Property p = ReflectionHelper.findProperty(type, properties[i]);
+			if (p == null) {
+				if (strict && type != Object.class) {
+					throw new IllegalArgumentException("Could not find property '" + properties[i] +
+							"' of path '" + path + "' in class ' " + type + "'");
+				}
+				break;
+			}
+			accessors[i] = p.accessor;
+			type = p.getType();
+			if (i == properties.length - 1)
+				valueType = p.getter.getGenericReturnType();
+		}
+		return new Chain(rootClass, accessors, valueType);
+	}
+	
+	
+	@Override
+	public String toString() {
+		return path;
+	}
+	
+	
+	/**
+	 * Split the path on '.' without using a regular expression.
+	 */
+	private static String[] split(String path) {
+		if (path.indexOf('.') == -1) {
+			return new String[] { path };
+		}
+		List<String> properties = new ArrayList<String>();
+		int start = 0;
+		int dot;
+		while ((dot = path.indexOf('.', start)) != -1) {
+			properties.add(path.substring(start, dot));
+			start = dot + 1;
+		}
+		properties.add(path.substring(start));
+		return properties.toArray(new String[properties.size()]);
+	}
+	
+	
+	/**
+	 * An immutable chain of accessors compiled for a root class.
+	 * 
+	 * <p>The kind of the chain tells whether the last accessor can read the value
+	 * as a primitive.</p>
+	 */
+	static final class Chain {
+		
+		static final int OBJECT = 0;
+		static final int INT = 1;
+		static final int LONG = 2;
+		static final int DOUBLE = 3;
+		
+		final Class<?> rootClass;
+		final PropertyAccessor[] accessors;
+		final int kind;
+		
+		/** The declared generic type of the value, or null if the last property is not resolved */
+		final Type valueType;
+		
+		Chain(Class<?> rootClass, PropertyAccessor[] accessors, Type valueType) {
+			this.rootClass = rootClass;
+			this.accessors = accessors;
+			this.kind = kindOf(accessors[accessors.length - 1]);
+			this.valueType = valueType;
+		}
+		
+		private static int kindOf(PropertyAccessor accessor) {
+			if (accessor instanceof IntPropertyAccessor)
+				return INT;
+			if (accessor instanceof LongPropertyAccessor)
+				return LONG;
+			if (accessor instanceof DoublePropertyAccessor)
+				return DOUBLE;
+			return OBJECT;
+		}
+	}
+}
@@ -17,11 +17,19 @@
 package com.tzavellas.validation;
 
 import com.tzavellas.validation.property.LinkedValidatorBuilder;
+import com.tzavellas.validation.validators.DoubleValidator;
+import com.tzavellas.validation.validators.IntValidator;
+import com.tzavellas.validation.validators.LongValidator;
 import com.tzavellas.validation.validators.Validator;
 
 /**
  * A class used to validate a JavaBean property. 
  * 
+ * <p>A <code>PropertyValidator</code> can be modified until it is frozen, either
+ * explicitly with {@link #freeze()} or when it is given to a {@link BeanValidator}.
+ * A frozen validator is immutable, so it can be shared by many threads and many
+ * <code>BeanValidator</code>s.</p>
+ * 
  * @author Spiros Tzavellas
  *
  * @param <T> the type (or a parent type) of the property
@@ -31,6 +39,8 @@ public class PropertyValidator<T> {
 	protected String property;
 	private Validator<T> validator;
 	private ValidationError validationError;
+	private PropertyPath propertyPath;
+	private volatile boolean frozen;
 	
 	
 	/**
@@ -65,6 +75,38 @@ public class PropertyValidator<T> {
 	}
 	
 	
+	/**
+	 * Get the validator that validates the property's value, or null if
+	 * this is a subclass that overrides the validation methods.
+	 */
+	public Validator<T> getValidator() {
+		return validator;
+	}
+	
+	
+	/**
+	 * Get the error that is returned when the validation fails, or null if
+	 * this is a subclass that overrides the validation methods.
+	 */
+	public ValidationError getValidationError() {
+		return validationError;
+	}
+	
+	
+	/**
+	 * Get the compiled path of the property this validator will validate.
+	 */
+	PropertyPath getPropertyPath() {
+		// racy single-check, PropertyPath is safe to publish without synchronization
+		PropertyPath path = propertyPath;
+		if (path == null) {
+			path = new PropertyPath(property);
+			propertyPath = path;
+		}
+		return path;
+	}
+	
+	
 	/**
 	 * Test if the specified property value is valid
 	 * 
@@ -91,12 +133,75 @@ public class PropertyValidator<T> {
 	}
 	
 	
+	/**
+	 * Test if the specified value of an <code>int</code> property is valid.
+	 * 
+	 * <p>If the validator is an {@link IntValidator} the value is not boxed,
+	 * else this method returns <code>validate(Integer.valueOf(value))</code>.</p>
+	 * 
+	 * @param value the value of the property.
+	 * 
+	 * @return null if valid else a <code>ValdationError</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValidationError validateInt(int value) {
+		// subclasses may override validate(T), so they always get the boxed value
+		if (validator instanceof IntValidator && getClass() == PropertyValidator.class) {
+			return ((IntValidator) validator).isValid(value) ? null : validationError;
+		}
+		return validate((T) Integer.valueOf(value));
+	}
+	
+	
+	/**
+	 * Test if the specified value of a <code>long</code> property is valid.
+	 * 
+	 * <p>If the validator is a {@link LongValidator} the value is not boxed,
+	 * else this method returns <code>validate(Long.valueOf(value))</code>.</p>
+	 * 
+	 * @param value the value of the property.
+	 * 
+	 * @return null if valid else a <code>ValdationError</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValidationError validateLong(long value) {
+		// subclasses may override validate(T), so they always get the boxed value
+		if (validator instanceof LongValidator && getClass() == PropertyValidator.class) {
+			return ((LongValidator) validator).isValid(value) ? null : validationError;
+		}
+		return validate((T) Long.valueOf(value));
+	}
+	
+	
+	/**
+	 * Test if the specified value of a <code>double</code> property is valid.
+	 * 
+	 * <p>If the validator is a {@link DoubleValidator} the value is not boxed,
+	 * else this method returns <code>validate(Double.valueOf(value))</code>.</p>
+	 * 
+	 * @param value the value of the property.
+	 * 
+	 * @return null if valid else a <code>ValdationError</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	public ValidationError validateDouble(double value) {
+		// subclasses may override validate(T), so they always get the boxed value
+		if (validator instanceof DoubleValidator && getClass() == PropertyValidator.class) {
+			return ((DoubleValidator) validator).isValid(value) ? null : validationError;
+		}
+		return validate((T) Double.valueOf(value));
+	}
+	
+	
 	/**
 	 * Modify the error code of the ValidationError this validator returns.
 	 * 
 	 * @param errorCode the new error code
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
 	 */
 	public void setErrorCode(String errorCode) {
+		checkNotFrozen();
 		validationError.setErrorCode(errorCode);
 	}
 	
@@ -105,12 +210,54 @@ public class PropertyValidator<T> {
 	 * Modify the default message of the ValidationError this validator returns.
 	 * 
 	 * @param message the new default message
+	 * 
+	 * @throws IllegalStateException if this validator is frozen
 	 */
 	public void setDefaultErrorMessage(String message) {
+		checkNotFrozen();
 		validationError.setDefaultMessage(message);
 	}
 	
 	
+	/**
+	 * Make this validator, and the error it returns, immutable. The methods
+	 * that modify a frozen validator throw an <code>IllegalStateException</code>.
+	 * 
+	 * <p>Freezing is idempotent. The <code>BeanValidator</code> freezes the
+	 * validators it is given.</p>
+	 * 
+	 * @return the <code>this</code> object.
+	 */
+	public PropertyValidator<T> freeze() {
+		if (validationError != null)
+			validationError.freeze();
+		frozen = true;
+		return this;
+	}
+	
+	
+	/**
+	 * Whether this validator is frozen.
+	 * 
+	 * @see #freeze()
+	 */
+	public final boolean isFrozen() {
+		return frozen;
+	}
+	
+	
+	/**
+	 * Throw an <code>IllegalStateException</code> if this validator is frozen.
+	 * Subclasses must call this method before any modification.
+	 */
+	protected final void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("The validator of property '" + property +
+					"' is frozen and cannot be modified");
+		}
+	}
+	
+	
 	// -----------------------------------------------------------------------
 	
 	/**
@@ -20,8 +20,9 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 
@@ -29,7 +30,16 @@ abstract class ReflectionHelper {
 	
 	private ReflectionHelper() { }
 	
-	private static ConcurrentHashMap<CacheKey, Method> propertyReaderCache = new ConcurrentHashMap<CacheKey, Method>();
+	/**
+	 * The properties of each class. A ClassValue does not keep the classes
+	 * reachable, so they can be unloaded when their class loader is discarded.
+	 */
+	private static final ClassValue<PropertyTable> propertyTables = new ClassValue<PropertyTable>() {
+		@Override
+		protected PropertyTable computeValue(Class<?> cls) {
+			return new PropertyTable(cls);
+		}
+	};
 	
 	static Object readProperty(Object target, String propertyPath) {
 		if (target == null) {
@@ -38,75 +48,34 @@ abstract class ReflectionHelper {
 		if (propertyPath == null) {
 			throw new IllegalArgumentException("The argument 'propertyPath' cannot be null");
 		}
-		
-		if (! isNestedProperty(propertyPath)) {
-			return readPropertyInternal(target, propertyPath);
-		}
-		
-		String[] properties = propertyPath.split("\\.");
-		Object tmpTarget = target;
-		for (int i = 0; i < properties.length - 1; i++) {
-			tmpTarget = readPropertyInternal(tmpTarget, properties[i]);
-			if (tmpTarget == null) {
-				throw new IllegalStateException("Found null in '" + properties[i] +
-						"' while trying to read ' " + propertyPath + "'");
-			}
-		}
-		
-		return readPropertyInternal(tmpTarget, properties[properties.length -1]);
+		return new PropertyPath(propertyPath).read(target);
 	}
 	
-	private static Object readPropertyInternal(Object target, String property) {
-		Class<?> cls = target.getClass();
-		CacheKey key = new CacheKey(cls, property);
-		
-		Method getter = propertyReaderCache.get(key);
-		if (getter != null) {
-			return invoke(getter, target);
-		}
-		
-		BeanInfo beanInfo = null;
-		try {
-			beanInfo = Introspector.getBeanInfo(cls);
-		} catch (IntrospectionException e) {
-			throw new RuntimeException("Could not find BeanInfo for class '" + cls + "'", e);
-		}
-		
-		for (PropertyDescriptor desc: beanInfo.getPropertyDescriptors())
-			if (desc.getName().equals(property)) {
-				getter = desc.getReadMethod();
-				propertyReaderCache.put(key, getter);
-				break;
-			}
-		
-		flushIntrospector(cls);
-		
-		if (getter == null) {
+	
+	/**
+	 * Get the accessor of the specified property.
+	 * 
+	 * @throws IllegalArgumentException if the class does not have a readable
+	 *         property with the specified name
+	 */
+	static PropertyAccessor getAccessor(Class<?> cls, String property) {
+		Property p = findProperty(cls, property);
+		if (p == null) {
 			throw new IllegalArgumentException(
 					"Could not find property '" + property + "' in class ' " + cls + "'");
 		}
-		
-		return invoke(getter, target);
-	}
-	
-	
-	private static boolean isNestedProperty(String propertyPath) {
-		return propertyPath.indexOf(".") != -1;
+		return p.accessor;
 	}
 	
 	
 	/**
-	 * Invoke the specified method on the specified object with the specified parameters.
+	 * Find the specified readable property of the specified class.
+	 * 
+	 * @return the property or null if the class does not have a readable
+	 *         property with the specified name
 	 */
-	private static Object invoke(Method m, Object obj, Object... args) {
-		try {
-			return m.invoke(obj, args);
-			
-		} catch (IllegalAccessException e) {
-			throw new RuntimeException("The method '" + m + "' is not accessible", e);
-		} catch (InvocationTargetException e) {
-			throw new RuntimeException("Exception while invoking method '" + m + "'", e.getTargetException());
-		}
+	static Property findProperty(Class<?> cls, String property) {
+		return propertyTables.get(cls).get(property);
 	}
 	
 	
@@ -124,31 +93,63 @@ abstract class ReflectionHelper {
 	
 	
 	/**
-	 * To be used as a key in the method cache
+	 * A readable property of a class.
 	 */
-	private static class CacheKey {
+	static final class Property {
 		
-		private Class<?> clazz;
-		private String prop;
+		final Method getter;
+		final PropertyAccessor accessor;
 		
-		/** We assume cls and property are not null */
-		CacheKey(Class<?> cls, String property) {
-			clazz = cls;
-			prop = property;
+		Property(Method getter, PropertyAccessor accessor) {
+			this.getter = getter;
+			this.accessor = accessor;
 		}
 		
-		@Override
-		public boolean equals(Object obj) {
-			if (! (obj instanceof CacheKey))
-				return false;
-
-			CacheKey that = (CacheKey) obj;
-			return this.clazz.equals(that.clazz) && this.prop.equals(that.prop);
+		/** The declared type of the property */
+		Class<?> getType() {
+			return getter.getReturnType();
 		}
+	}
+	
+	
+	/**
+	 * The readable properties of a class. The class is introspected once,
+	 * the accessors are created on first use.
+	 */
+	private static final class PropertyTable {
 		
-		@Override
-		public int hashCode() {
-			return clazz.hashCode() + prop.hashCode();
-		}	
+		private final Map<String, Method> getters = new HashMap<String, Method>();
+		private final ConcurrentHashMap<String, Property> properties = new ConcurrentHashMap<String, Property>();
+		
+		PropertyTable(Class<?> cls) {
+			BeanInfo beanInfo = null;
+			try {
+				beanInfo = Introspector.getBeanInfo(cls);
+			} catch (IntrospectionException e) {
+				throw new RuntimeException("Could not find BeanInfo for class '" + cls + "'", e);
+			}
+			
+			for (PropertyDescriptor desc: beanInfo.getPropertyDescriptors())
+				if (desc.getReadMethod() != null)
+					getters.put(desc.getName(), desc.getReadMethod());
+			
+			flushIntrospector(cls);
+		}
+		
+		Property get(String property) {
+			Property p = properties.get(property);
+			if (p != null) {
+				return p;
+			}
+			
+			Method getter = getters.get(property);
+			if (getter == null) {
+				return null;
+			}
+			
+			p = new Property(getter, PropertyAccessors.getDefaultFactory().createAccessor(getter));
+			Property existing = properties.putIfAbsent(property, p);
+			return existing != null ? existing : p;
+		}
 	}
 }
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.ResourceBundle;
+import java.util.Set;
+
+/**
+ * A <code>MessageResolver</code> that resolves the messages from a
+ * <code>ResourceBundle</code>, without depending on Spring.
+ * 
+ * <p>The bundles of the specified locales are loaded, and their messages are
+ * compiled into {@link MessageTemplate}s, when the resolver is created. Each
+ * locale gets an immutable table with the patterns of all of its messages,
+ * including the messages it inherits from its parent bundles and from the
+ * fallback locale. The compiled templates are cached by
+ * {@link TemplateMessageResolver}, so resolving a message allocates nothing,
+ * apart from the rendered text of a message with arguments.</p>
+ * 
+ * <p>A locale that was not loaded is resolved by removing its variant and then
+ * its country (<code>el_GR_x</code>, <code>el_GR</code>, <code>el</code>) until
+ * a loaded locale is found, else the fallback locale is used. The fallback
+ * locale is the first of the specified locales, and is also used for null
+ * locales. The default locale of the JVM is never consulted, so the messages
+ * do not depend on the machine. If there is no message for an error code the
+ * default message of the error is returned.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe and lookups do not lock.</p>
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see java.util.ResourceBundle
+ */
+public class ResourceBundleMessageResolver extends TemplateMessageResolver {
+	
+	private static final ResourceBundle.Control CONTROL =
+		ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_DEFAULT);
+	
+	private final Set<Locale> locales;
+	private final Locale fallbackLocale;
+	private final Map<String, String> fallback;
+	private final Map<Locale, Map<String, String>> loaded;
+	
+	
+	/**
+	 * Create a resolver for the bundles of the specified base name, using the
+	 * class loader of this class.
+	 * 
+	 * @see #ResourceBundleMessageResolver(String, ClassLoader, Locale...)
+	 */
+	public ResourceBundleMessageResolver(String baseName, Locale... locales) {
+		this(baseName, ResourceBundleMessageResolver.class.getClassLoader(), locales);
+	}
+	
+	
+	/**
+	 * Create a resolver for the bundles of the specified base name, loading the
+	 * bundles of the specified locales.
+	 * 
+	 * @param baseName the base name of the bundles
+	 * @param loader the class loader to load the bundles from
+	 * @param locales the locales to load. The first locale is the fallback locale.
+	 *                If no locale is specified only the base bundle is loaded, as
+	 *                the bundle of <code>Locale.ROOT</code>.
+	 * 
+	 * @throws MissingResourceException if there is no bundle for a locale
+	 */
+	public ResourceBundleMessageResolver(String baseName, ClassLoader loader, Locale... locales) {
+		if (baseName == null) {
+			throw new IllegalArgumentException("The argument 'baseName' cannot be null");
+		}
+		if (loader == null) {
+			throw new IllegalArgumentException("The argument 'loader' cannot be null");
+		}
+		fallbackLocale = locales.length > 0 ? locales[0] : Locale.ROOT;
+		ResourceBundle fallbackBundle = ResourceBundle.getBundle(baseName, fallbackLocale, loader, CONTROL);
+		fallback = patterns(fallbackBundle, null);
+		
+		Map<Locale, Map<String, String>> tables = new HashMap<Locale, Map<String, String>>();
+		tables.put(fallbackLocale, fallback);
+		for (int i = 1; i < locales.length; i++) {
+			if (! tables.containsKey(locales[i])) {
+				ResourceBundle bundle = ResourceBundle.getBundle(baseName, locales[i], loader, CONTROL);
+				tables.put(locales[i], patterns(bundle, fallbackBundle));
+			}
+		}
+		loaded = tables;
+		
+		Set<Locale> order = new LinkedHashSet<Locale>();
+		order.add(fallbackLocale);
+		Collections.addAll(order, locales);
+		this.locales = Collections.unmodifiableSet(order);
+		
+		for (Map.Entry<Locale, Map<String, String>> table: loaded.entrySet()) {
+			for (String code: table.getValue().keySet())
+				getTemplate(code, table.getKey());
+		}
+	}
+	
+	
+	/**
+	 * Get the patterns of the bundle, and the patterns of the fallback bundle
+	 * that the bundle does not have.
+	 */
+	private static Map<String, String> patterns(ResourceBundle bundle, ResourceBundle fallbackBundle) {
+		Map<String, String> table = new HashMap<String, String>();
+		if (fallbackBundle != null) {
+			for (Enumeration<String> keys = fallbackBundle.getKeys(); keys.hasMoreElements(); ) {
+				String key = keys.nextElement();
+				table.put(key, fallbackBundle.getString(key));
+			}
+		}
+		for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements(); ) {
+			String key = keys.nextElement();
+			table.put(key, bundle.getString(key));
+		}
+		return table;
+	}
+	
+	
+	/**
+	 * Get the locales whose bundles were loaded, starting with the fallback locale.
+	 */
+	public Set<Locale> getLocales() {
+		return locales;
+	}
+	
+	
+	/**
+	 * Get the pattern of the error code from the table of the closest loaded locale.
+	 */
+	@Override
+	protected final String getPattern(String errorCode, Locale locale) {
+		return tableFor(locale).get(errorCode);
+	}
+	
+	
+	/**
+	 * Get the fallback locale, instead of the default locale of the JVM.
+	 */
+	@Override
+	protected final Locale getDefaultLocale() {
+		return fallbackLocale;
+	}
+	
+	
+	/**
+	 * Find the table of the closest loaded locale.
+	 */
+	private Map<String, String> tableFor(Locale locale) {
+		Map<String, String> table = loaded.get(locale);
+		if (table == null && ! locale.getVariant().isEmpty())
+			table = loaded.get(new Locale(locale.getLanguage(), locale.getCountry()));
+		if (table == null && ! locale.getCountry().isEmpty())
+			table = loaded.get(new Locale(locale.getLanguage()));
+		return table != null ? table : fallback;
+	}
+}
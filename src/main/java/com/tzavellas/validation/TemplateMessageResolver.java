@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A base class for <code>MessageResolver</code>s that look up a
+ * {@link MessageTemplate} pattern for the error code of each error.
+ * 
+ * <p>The patterns are compiled once per (error code, locale) pair and the
+ * compiled templates are cached, so resolving a message only renders the
+ * arguments of the error. The cache is never invalidated, so the patterns
+ * of a subclass must not change. If there is no pattern for an error code
+ * the default message of the error is returned as is.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe, if {@link #getPattern(String, Locale)}
+ * is thread safe.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+public abstract class TemplateMessageResolver implements MessageResolver {
+	
+	/** Marks the codes that do not have a pattern, since the map cannot hold nulls */
+	private static final MessageTemplate NO_TEMPLATE = MessageTemplate.compile("", Locale.ROOT);
+	
+	/** The maximum number of locales whose templates are cached */
+	private static final int MAX_LOCALES = 64;
+	
+	private final ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageTemplate>> templates =
+		new ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageTemplate>>();
+	
+	
+	/**
+	 * Get the pattern of the specified error code.
+	 * 
+	 * @param errorCode the code of the error
+	 * @param locale the locale of the message, never null
+	 * 
+	 * @return the pattern or null if there is no message for the error code
+	 */
+	protected abstract String getPattern(String errorCode, Locale locale);
+	
+	
+	/**
+	 * Get the locale of the messages that are resolved for a null locale.
+	 * 
+	 * @return the default locale of the JVM
+	 */
+	protected Locale getDefaultLocale() {
+		return Locale.getDefault();
+	}
+	
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>If the specified locale is null the {@linkplain #getDefaultLocale() default locale}
+	 * is used.</p>
+	 */
+	public String getMessage(ValidationError error, Locale locale) {
+		MessageTemplate template = getTemplate(error.getErrorCode(), locale != null ? locale : getDefaultLocale());
+		if (template == null)
+			return error.getDefaultMessage();
+		return template.format(error.getArguments());
+	}
+	
+	
+	/**
+	 * Get the compiled template of the specified error code.
+	 * 
+	 * <p>The templates are cached per locale and error code, so a cached template
+	 * is found without allocating. The templates of at most 64 locales are cached,
+	 * the templates of other locales are compiled on each call.</p>
+	 * 
+	 * @return the template or null if there is no pattern for the error code
+	 */
+	protected final MessageTemplate getTemplate(String errorCode, Locale locale) {
+		if (errorCode == null)
+			return null;
+		ConcurrentHashMap<String, MessageTemplate> byCode = templates.get(locale);
+		if (byCode == null) {
+			byCode = new ConcurrentHashMap<String, MessageTemplate>();
+			if (templates.size() < MAX_LOCALES) {
+				ConcurrentHashMap<String, MessageTemplate> existing = templates.putIfAbsent(locale, byCode);
+				if (existing != null)
+					byCode = existing;
+			}
+		}
+		MessageTemplate template = byCode.get(errorCode);
+		if (template == null) {
+			String pattern = getPattern(errorCode, locale);
+			template = pattern != null ? MessageTemplate.compile(pattern, locale) : NO_TEMPLATE;
+			MessageTemplate existing = byCode.putIfAbsent(errorCode, template);
+			if (existing != null)
+				template = existing;
+		}
+		return template != NO_TEMPLATE ? template : null;
+	}
+}
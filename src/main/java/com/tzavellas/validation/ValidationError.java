@@ -32,6 +32,8 @@ public class ValidationError implements Serializable {
 	private String errorCode;
 	private String defaultMessage;
 	private Object[] messageArguments = new Object[0];
+	private transient Object rejectedValue;
+	private transient volatile boolean frozen;
 	
 	/**
 	 * Default constructor for <code>ValidationError</code>.
@@ -48,6 +50,23 @@ public class ValidationError implements Serializable {
 		this.messageArguments = messageArguments;
 	}
 	
+	/**
+	 * Create a copy of the specified error for a value that was rejected.
+	 */
+	ValidationError(ValidationError error, Object rejectedValue) {
+		this(error.field, error.errorCode, error.defaultMessage, error.messageArguments);
+		this.rejectedValue = rejectedValue;
+	}
+	
+	/**
+	 * Create a copy of the specified error for another field, with the specified
+	 * error code and default message unless they are null.
+	 */
+	ValidationError(String field, ValidationError error, String errorCode, String defaultMessage) {
+		this(field, errorCode != null ? errorCode : error.errorCode,
+				defaultMessage != null ? defaultMessage : error.defaultMessage, error.messageArguments);
+	}
+	
 	/**
 	 * Get the property name that failed the validation.
 	 */
@@ -64,6 +83,7 @@ public class ValidationError implements Serializable {
 	 * the error message.
 	 */
 	public void setErrorCode(String errorCode) {
+		checkNotFrozen();
 		this.errorCode = errorCode;
 	}
 	
@@ -75,6 +95,14 @@ public class ValidationError implements Serializable {
 	 */
 	public Object[] getArguments() { return messageArguments; }
 	
+	/**
+	 * Get the value that failed the validation. The rejected value is
+	 * not serialized.
+	 * 
+	 * @return the value, or null if the value was null or is not known
+	 */
+	public Object getRejectedValue() { return rejectedValue; }
+	
 	/**
 	 * Get a default error message to display if no error message can
 	 * be resolved using the <code>errorCode</code>.
@@ -86,9 +114,29 @@ public class ValidationError implements Serializable {
 	 * be resolved using the <code>errorCode</code>.
 	 */
 	public void setDefaultMessage(String defaultMessage) {
+		checkNotFrozen();
 		this.defaultMessage = defaultMessage;
 	}
 	
+	/**
+	 * Make this error immutable. Errors are frozen with the
+	 * {@link PropertyValidator} that returns them.
+	 */
+	void freeze() {
+		frozen = true;
+	}
+	
+	boolean isFrozen() {
+		return frozen;
+	}
+	
+	private void checkNotFrozen() {
+		if (frozen) {
+			throw new IllegalStateException("The error '" + errorCode + "' of property '" + field +
+					"' is shared by a frozen validator and cannot be modified");
+		}
+	}
+	
 	/**
 	 * Returns the default message.
 	 */
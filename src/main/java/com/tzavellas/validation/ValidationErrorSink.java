@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+/**
+ * Receives the failures of a validation as they happen.
+ * 
+ * <p>A sink is given to {@link BeanValidator#validate(Object, ValidationErrorSink)}
+ * instead of collecting the failures in a {@link ValidationResult}, so that large
+ * batches can be validated without keeping their errors in memory. A sink can for
+ * example write each failure to a rejection file, count the failures or offer
+ * them to a bounded queue.</p>
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see BeanValidator#validate(Object, ValidationErrorSink)
+ */
+public interface ValidationErrorSink {
+	
+	/**
+	 * Receive a failure.
+	 * 
+	 * @param bean the object under validation
+	 * @param error the error of the validator that failed. The error is shared by
+	 *              all the failures of the validator and is frozen, so it must not
+	 *              be kept per failure if its identity matters.
+	 * @param rejectedValue the value that was rejected, may be null
+	 */
+	void reject(Object bean, ValidationError error, Object rejectedValue);
+}
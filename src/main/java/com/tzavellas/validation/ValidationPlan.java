@@ -0,0 +1,478 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable plan for validating the objects of a class.
+ * 
+ * <p>Adjacent <code>PropertyValidator</code>s of the same property are grouped
+ * and each property path is compiled, once, into a chain of accessors for the
+ * class of the plan. Validating an object is then an iteration over an array of
+ * (accessor chain, validators) pairs, where the property of each group is read
+ * once. Since only adjacent validators are grouped, the errors are reported in
+ * the order the validators were specified. The elements of the collection
+ * property of an {@link ElementsValidator} are validated by a plan for their
+ * own class.</p>
+ * 
+ * <p>For fail-fast validations the steps can optionally be reordered by an
+ * {@link AdaptiveOrder}, so that cheap checks that are likely to fail run first.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is thread safe. Apart from the statistics of
+ * the optional <code>AdaptiveOrder</code> it is immutable.</p>
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see BeanValidator
+ */
+final class ValidationPlan {
+	
+	final Class<?> beanClass;
+	private final int maxErrors;
+	private final boolean firstErrorPerField;
+	private final Step[] steps;
+	/** The index of the first step of the property of each step */
+	private final int[] firstSteps;
+	/** Whether a property has more than one step */
+	private final boolean repeated;
+	private final AdaptiveOrder ordering;
+	
+	
+	/**
+	 * Compile a plan for the specified class.
+	 * 
+	 * @param beanClass the class of the objects to validate
+	 * @param validators the validators of the plan
+	 * @param strict whether to fail if a property does not exist in the class
+	 * @param adaptive whether to reorder the steps of fail-fast validations
+	 *                 using an {@link AdaptiveOrder}
+	 * @param maxErrors the number of errors after which a validation stops
+	 * @param firstErrorPerField whether to stop validating a property at its
+	 *                           first error
+	 * 
+	 * @throws IllegalArgumentException if <code>strict</code> is true and a property
+	 *         does not exist, or a property of the elements of a collection does
+	 *         not exist in the declared element type
+	 */
+	ValidationPlan(Class<?> beanClass, PropertyValidator<?>[] validators, boolean strict, boolean adaptive,
+			int maxErrors, boolean firstErrorPerField) {
+		this.beanClass = beanClass;
+		this.maxErrors = maxErrors;
+		this.firstErrorPerField = firstErrorPerField;
+		
+		// adjacent validators of a property are grouped, an ElementsValidator is a step of its own
+		List<Step> list = new ArrayList<Step>();
+		List<Integer> firsts = new ArrayList<Integer>();
+		Map<String, Integer> firstByProperty = new HashMap<String, Integer>();
+		Map<String, PropertyPath.Chain> chains = new HashMap<String, PropertyPath.Chain>();
+		int i = 0;
+		while (i < validators.length) {
+			PropertyValidator<?> head = validators[i];
+			String property = head.getProperty();
+			PropertyPath path = head.getPropertyPath();
+			PropertyPath.Chain chain = chains.get(property);
+			if (chain == null) {
+				chain = strict ? path.bind(beanClass) : path.compile(beanClass);
+				chains.put(property, chain);
+			}
+			
+			if (head instanceof ElementsValidator) {
+				if (strict)
+					((ElementsValidator) head).bindElements(chain.valueType);
+				firsts.add(list.size());
+				list.add(new ElementsStep(path, chain, (ElementsValidator) head));
+				i++;
+				continue;
+			}
+			
+			int end = i + 1;
+			while (end < validators.length && ! (validators[end] instanceof ElementsValidator)
+					&& validators[end].getProperty().equals(property))
+				end++;
+			Integer first = firstByProperty.get(property);
+			if (first == null) {
+				first = list.size();
+				firstByProperty.put(property, first);
+			}
+			firsts.add(first);
+			list.add(new Step(path, chain, Arrays.copyOfRange(validators, i, end)));
+			i = end;
+		}
+		
+		steps = list.toArray(new Step[list.size()]);
+		firstSteps = new int[steps.length];
+		boolean repeats = false;
+		for (int j = 0; j < steps.length; j++) {
+			firstSteps[j] = firsts.get(j);
+			repeats |= firstSteps[j] != j;
+		}
+		repeated = repeats;
+		ordering = adaptive ? new AdaptiveOrder(steps.length) : null;
+	}
+	
+	
+	/**
+	 * Validate the specified object. The object must be an instance of the
+	 * class of this plan.
+	 * 
+	 * <p>The validation stops when the result has <code>maxErrors</code> errors.
+	 * The result is marked as truncated only if a validation was skipped.</p>
+	 * 
+	 * @return {@link ValidationResult#VALID} if the object is valid, so that
+	 *         nothing is allocated for valid objects.
+	 */
+	ValidationResult validate(Object bean) {
+		ValidationResult result = null;
+		int remaining = maxErrors;
+		boolean[] failed = failedProperties();
+		for (int i = 0; i < steps.length; i++) {
+			if (failed != null && failed[firstSteps[i]])
+				continue;
+			result = steps[i].validate(bean, result, remaining, firstErrorPerField);
+			if (result != null) {
+				int errors = maxErrors - result.getErrorCount();
+				if (failed != null && errors < remaining)
+					failed[firstSteps[i]] = true;
+				remaining = errors;
+				if (remaining == 0) {
+					if (runsStepsAfter(i, failed))
+						result.setTruncated();
+					break;
+				}
+			}
+		}
+		return result != null ? result : ValidationResult.VALID;
+	}
+	
+	
+	/**
+	 * Validate the specified object, pushing the failures to the specified sink.
+	 * The validation stops after <code>maxErrors</code> failures.
+	 * 
+	 * @return the number of failures
+	 */
+	int validate(Object bean, ValidationErrorSink sink) {
+		int failures = 0;
+		boolean[] failed = failedProperties();
+		for (int i = 0; i < steps.length; i++) {
+			if (failed != null && failed[firstSteps[i]])
+				continue;
+			int n = steps[i].validate(bean, sink, maxErrors - failures, firstErrorPerField);
+			if (failed != null && n > 0)
+				failed[firstSteps[i]] = true;
+			failures += n;
+			if (failures == maxErrors)
+				break;
+		}
+		return failures;
+	}
+	
+	
+	/**
+	 * Test if any step after the specified step would validate its property.
+	 */
+	private boolean runsStepsAfter(int step, boolean[] failed) {
+		for (int i = step + 1; i < steps.length; i++) {
+			if (failed == null || ! failed[firstSteps[i]])
+				return true;
+		}
+		return false;
+	}
+	
+	
+	/**
+	 * The properties that failed, indexed by their first step, when a property
+	 * that is validated by more than one step must stop at its first error.
+	 * 
+	 * @return the array or null if the steps do not have to be tracked
+	 */
+	private boolean[] failedProperties() {
+		return firstErrorPerField && repeated ? new boolean[steps.length] : null;
+	}
+	
+	
+	/**
+	 * Test if the specified object is valid, without allocating a result.
+	 * Returns at the first failing step.
+	 */
+	boolean isValid(Object bean) {
+		if (ordering == null) {
+			for (Step step: steps) {
+				if (! step.isValid(bean))
+					return false;
+			}
+			return true;
+		}
+		
+		if (ordering.shouldSample()) {
+			return sampleIsValid(bean);
+		}
+		for (int i: ordering.getOrder()) {
+			if (! steps[i].isValid(bean))
+				return false;
+		}
+		return true;
+	}
+	
+	
+	/**
+	 * Evaluate and time all the steps, to update the statistics of the ordering.
+	 */
+	private boolean sampleIsValid(Object bean) {
+		long[] nanos = new long[steps.length];
+		boolean[] failed = new boolean[steps.length];
+		boolean valid = true;
+		for (int i = 0; i < steps.length; i++) {
+			long start = System.nanoTime();
+			failed[i] = ! steps[i].isValid(bean);
+			nanos[i] = System.nanoTime() - start;
+			valid &= ! failed[i];
+		}
+		ordering.record(nanos, failed);
+		return valid;
+	}
+	
+	
+	/**
+	 * A property and the validators of its value.
+	 * 
+	 * <p>If the chain reads an <code>int</code>, <code>long</code> or <code>double</code>
+	 * property the value is passed to the validators unboxed, so range checks on
+	 * primitive properties do not allocate.</p>
+	 */
+	private static class Step {
+		
+		final PropertyPath path;
+		final PropertyPath.Chain chain;
+		final PropertyValidator<?>[] validators;
+		
+		Step(PropertyPath path, PropertyPath.Chain chain, PropertyValidator<?>[] validators) {
+			this.path = path;
+			this.chain = chain;
+			this.validators = validators;
+		}
+		
+		/**
+		 * Validate the property of the specified object, adding at most
+		 * <code>remaining</code> errors to the specified result. The result is
+		 * marked as truncated if validators of the step were skipped because of
+		 * that limit.
+		 * 
+		 * @return the result, that is created at the first error
+		 */
+		@SuppressWarnings("unchecked")
+		ValidationResult validate(Object bean, ValidationResult result, int remaining, boolean firstErrorPerField) {
+			int limit = firstErrorPerField ? 1 : remaining;
+			int failures = 0;
+			switch (chain.kind) {
+			case PropertyPath.Chain.INT:
+				int i = path.readInt(bean, chain);
+				for (int j = 0; j < validators.length; j++) {
+					ValidationError error = validators[j].validateInt(i);
+					if (error != null) {
+						result = create(result);
+						result.addError(error, i);
+						if (++failures == limit)
+							return stopped(result, j, firstErrorPerField);
+					}
+				}
+				return result;
+			case PropertyPath.Chain.LONG:
+				long l = path.readLong(bean, chain);
+				for (int j = 0; j < validators.length; j++) {
+					ValidationError error = validators[j].validateLong(l);
+					if (error != null) {
+						result = create(result);
+						result.addError(error, l);
+						if (++failures == limit)
+							return stopped(result, j, firstErrorPerField);
+					}
+				}
+				return result;
+			case PropertyPath.Chain.DOUBLE:
+				double d = path.readDouble(bean, chain);
+				for (int j = 0; j < validators.length; j++) {
+					ValidationError error = validators[j].validateDouble(d);
+					if (error != null) {
+						result = create(result);
+						result.addError(error, d);
+						if (++failures == limit)
+							return stopped(result, j, firstErrorPerField);
+					}
+				}
+				return result;
+			default:
+				Object value = path.read(bean, chain);
+				for (int j = 0; j < validators.length; j++) {
+					ValidationError error = ((PropertyValidator<Object>) validators[j]).validate(value);
+					if (error != null) {
+						result = create(result);
+						result.addError(error, value);
+						if (++failures == limit)
+							return stopped(result, j, firstErrorPerField);
+					}
+				}
+				return result;
+			}
+		}
+		
+		/**
+		 * Validate the property of the specified object, pushing at most
+		 * <code>remaining</code> failures to the specified sink. Primitive values
+		 * are boxed only on failure.
+		 * 
+		 * @return the number of failures
+		 */
+		@SuppressWarnings("unchecked")
+		int validate(Object bean, ValidationErrorSink sink, int remaining, boolean firstErrorPerField) {
+			int limit = firstErrorPerField ? 1 : remaining;
+			int failures = 0;
+			switch (chain.kind) {
+			case PropertyPath.Chain.INT:
+				int i = path.readInt(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					ValidationError error = validator.validateInt(i);
+					if (error != null) {
+						sink.reject(bean, error, Integer.valueOf(i));
+						if (++failures == limit)
+							return failures;
+					}
+				}
+				return failures;
+			case PropertyPath.Chain.LONG:
+				long l = path.readLong(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					ValidationError error = validator.validateLong(l);
+					if (error != null) {
+						sink.reject(bean, error, Long.valueOf(l));
+						if (++failures == limit)
+							return failures;
+					}
+				}
+				return failures;
+			case PropertyPath.Chain.DOUBLE:
+				double d = path.readDouble(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					ValidationError error = validator.validateDouble(d);
+					if (error != null) {
+						sink.reject(bean, error, Double.valueOf(d));
+						if (++failures == limit)
+							return failures;
+					}
+				}
+				return failures;
+			default:
+				Object value = path.read(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					ValidationError error = ((PropertyValidator<Object>) validator).validate(value);
+					if (error != null) {
+						sink.reject(bean, error, value);
+						if (++failures == limit)
+							return failures;
+					}
+				}
+				return failures;
+			}
+		}
+		
+		@SuppressWarnings("unchecked")
+		boolean isValid(Object bean) {
+			switch (chain.kind) {
+			case PropertyPath.Chain.INT:
+				int i = path.readInt(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					if (validator.validateInt(i) != null)
+						return false;
+				}
+				return true;
+			case PropertyPath.Chain.LONG:
+				long l = path.readLong(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					if (validator.validateLong(l) != null)
+						return false;
+				}
+				return true;
+			case PropertyPath.Chain.DOUBLE:
+				double d = path.readDouble(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					if (validator.validateDouble(d) != null)
+						return false;
+				}
+				return true;
+			default:
+				Object value = path.read(bean, chain);
+				for (PropertyValidator<?> validator: validators) {
+					if (((PropertyValidator<Object>) validator).validate(value) != null)
+						return false;
+				}
+				return true;
+			}
+		}
+		
+		/**
+		 * Mark the result as truncated if the limit of errors, rather than the
+		 * first error of the field, skipped validators after the specified one.
+		 */
+		private ValidationResult stopped(ValidationResult result, int last, boolean firstErrorPerField) {
+			if (! firstErrorPerField && last < validators.length - 1)
+				result.setTruncated();
+			return result;
+		}
+		
+		private static ValidationResult create(ValidationResult result) {
+			return result != null ? result : new ValidationResult();
+		}
+	}
+	
+	
+	/**
+	 * A collection property and the {@link ElementsValidator} of its elements.
+	 * The errors of the elements are not limited per field, since each element
+	 * has its own fields.
+	 */
+	private static final class ElementsStep extends Step {
+		
+		final ElementsValidator elements;
+		
+		ElementsStep(PropertyPath path, PropertyPath.Chain chain, ElementsValidator elements) {
+			super(path, chain, new PropertyValidator<?>[] { elements });
+			this.elements = elements;
+		}
+		
+		@Override
+		ValidationResult validate(Object bean, ValidationResult result, int remaining, boolean firstErrorPerField) {
+			Object collection = path.read(bean, chain);
+			return collection == null ? result : elements.validate(collection, result, remaining, firstErrorPerField);
+		}
+		
+		@Override
+		int validate(Object bean, ValidationErrorSink sink, int remaining, boolean firstErrorPerField) {
+			Object collection = path.read(bean, chain);
+			return collection == null ? 0 : elements.validate(bean, collection, sink, remaining, firstErrorPerField);
+		}
+		
+		@Override
+		boolean isValid(Object bean) {
+			return elements.isValid(path.read(bean, chain));
+		}
+	}
+}
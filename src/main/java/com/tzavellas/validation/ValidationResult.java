@@ -16,14 +16,22 @@
  */
 package com.tzavellas.validation;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 /**
  * The result of a validation.
+ * 
+ * <p>The failures are recorded compactly, as the shared error of the failed
+ * validator and the rejected value, in arrays that grow with the number of
+ * failures. Primitive rejected values are stored unboxed. The
+ * {@link ValidationError} objects, that carry the rejected values, are created
+ * only when {@link #getErrors()} is called.</p>
 
  * @see BeanValidator
  * 
@@ -31,8 +39,49 @@ import java.util.Map;
  */
 public class ValidationResult {
 	
-	private MessageResolver messageResolver = new DefaultMessageResolver();
-	private Collection<ValidationError> errors = new ArrayList<ValidationError>();
+	/**
+	 * The result of a successful validation.
+	 * 
+	 * <p>This instance is shared and immutable: {@link #addError(ValidationError)}
+	 * throws an <code>UnsupportedOperationException</code> and
+	 * {@link #setMessageResolver(MessageResolver)} has no effect, since there
+	 * are no messages to resolve.</p>
+	 */
+	public static final ValidationResult VALID = new ValidationResult(true);
+	
+	private static final MessageResolver DEFAULT_RESOLVER = new DefaultMessageResolver();
+	
+	private static final int NO_VALUE = -1;
+	
+	private final boolean immutable;
+	private MessageResolver messageResolver = DEFAULT_RESOLVER;
+	
+	private int count;
+	private ValidationError[] templates;
+	private byte[] kinds;
+	private Object[] values;
+	private long[] primitives;
+	private boolean truncated;
+	
+	/** The errors created from the failures, discarded when a failure is added */
+	private List<ValidationError> errors;
+	
+	/** The messages of the last locale, discarded when a failure is added */
+	private Map<String, String> messages;
+	private Locale messagesLocale;
+	
+	
+	/**
+	 * Create an empty <code>ValidationResult</code>.
+	 */
+	public ValidationResult() {
+		this(false);
+	}
+	
+	
+	private ValidationResult(boolean immutable) {
+		this.immutable = immutable;
+	}
 	
 	
 	/**
@@ -46,7 +95,10 @@ public class ValidationResult {
 	 * @see ValidationError
 	 */
 	public void setMessageResolver(MessageResolver messageResolver) {
-		this.messageResolver = messageResolver;
+		if (! immutable) {
+			this.messageResolver = messageResolver;
+			this.messages = null;
+		}
 	}
 	
 	
@@ -54,33 +106,218 @@ public class ValidationResult {
 	 * Add a validation.
 	 * 
 	 * @param error the error to add
+	 * 
+	 * @throws UnsupportedOperationException if this is the {@link #VALID} result
 	 */
 	public void addError(ValidationError error) {
-		errors.add(error);
+		if (immutable)
+			throw new UnsupportedOperationException("Cannot add errors to ValidationResult.VALID");
+		add(error, NO_VALUE, null, 0);
+	}
+	
+	
+	/**
+	 * Record a failure of a validator that rejected the specified value.
+	 */
+	void addError(ValidationError error, Object rejectedValue) {
+		add(error, rejectedValue != null ? PropertyPath.Chain.OBJECT : NO_VALUE, rejectedValue, 0);
+	}
+	
+	
+	/**
+	 * Record a failure of a validator that rejected the specified <code>int</code>.
+	 */
+	void addError(ValidationError error, int rejectedValue) {
+		add(error, PropertyPath.Chain.INT, null, rejectedValue);
+	}
+	
+	
+	/**
+	 * Record a failure of a validator that rejected the specified <code>long</code>.
+	 */
+	void addError(ValidationError error, long rejectedValue) {
+		add(error, PropertyPath.Chain.LONG, null, rejectedValue);
+	}
+	
+	
+	/**
+	 * Record a failure of a validator that rejected the specified <code>double</code>.
+	 */
+	void addError(ValidationError error, double rejectedValue) {
+		add(error, PropertyPath.Chain.DOUBLE, null, Double.doubleToRawLongBits(rejectedValue));
+	}
+	
+	
+	private void add(ValidationError error, int kind, Object value, long primitive) {
+		if (templates == null) {
+			templates = new ValidationError[4];
+			kinds = new byte[4];
+			values = new Object[4];
+			primitives = new long[4];
+		} else if (count == templates.length) {
+			int capacity = count * 2;
+			templates = Arrays.copyOf(templates, capacity);
+			kinds = Arrays.copyOf(kinds, capacity);
+			values = Arrays.copyOf(values, capacity);
+			primitives = Arrays.copyOf(primitives, capacity);
+		}
+		templates[count] = error;
+		kinds[count] = (byte) kind;
+		values[count] = value;
+		primitives[count] = primitive;
+		count++;
+		errors = null;
+		messages = null;
+	}
+	
+	
+	/**
+	 * Record at most <code>max</code> failures of the specified result, as failures
+	 * of the properties of the specified prefix, such as <code>items[3]</code>.
+	 * 
+	 * @param errorCode the error code of the failures, null to keep their own
+	 * @param defaultMessage the default message of the failures, null to keep their own
+	 * 
+	 * @return the number of recorded failures
+	 */
+	int addErrors(String prefix, ValidationResult other, int max, String errorCode, String defaultMessage) {
+		int n = Math.min(other.count, max);
+		for (int i = 0; i < n; i++) {
+			ValidationError template = other.templates[i];
+			ValidationError error = new ValidationError(prefix + '.' + template.getField(), template, errorCode, defaultMessage);
+			add(error, other.kinds[i], other.values[i], other.primitives[i]);
+		}
+		return n;
+	}
+	
+	
+	/**
+	 * Get the number of errors of this result, without creating the
+	 * <code>ValidationError</code> objects.
+	 */
+	public int getErrorCount() {
+		return count;
+	}
+	
+	
+	/**
+	 * Get the property of the specified failure.
+	 */
+	String getField(int index) {
+		return templates[index].getField();
+	}
+	
+	
+	/**
+	 * Create a result with the first <code>n</code> failures of this result.
+	 */
+	ValidationResult truncate(int n) {
+		ValidationResult partial = new ValidationResult();
+		partial.messageResolver = messageResolver;
+		partial.truncated = true;
+		for (int i = 0; i < n; i++)
+			partial.add(templates[i], kinds[i], values[i], primitives[i]);
+		return partial;
+	}
+	
+	
+	/**
+	 * Mark this result as truncated.
+	 */
+	void setTruncated() {
+		truncated = true;
+	}
+	
+	
+	/**
+	 * Returns true if the validation stopped early because the maximum number
+	 * of errors was reached.
+	 * 
+	 * <p>In a truncated result, a property that has no errors might not have
+	 * been validated at all.</p>
+	 * 
+	 * @see BeanValidator#setMaxErrors(int)
+	 */
+	public boolean isTruncated() {
+		return truncated;
 	}
 	
 	
 	/**
 	 * Get the collection of validation errors for this <code>ValidationResult</code>.
 	 * 
-	 * @return the collection of errors, or an empty collection if there are no
-	 *         errors (the object under validation is valid).
+	 * <p>The errors are created on the first call, after that the same collection
+	 * is returned until an error is added. An error that was added with
+	 * {@link #addError(ValidationError)} is returned as is.</p>
+	 * 
+	 * @return an unmodifiable collection of errors, or an empty collection if there
+	 *         are no errors (the object under validation is valid).
 	 */
 	public Collection<ValidationError> getErrors() {
-		return errors;
+		if (count == 0)
+			return Collections.emptyList();
+		List<ValidationError> list = errors;
+		if (list == null) {
+			ValidationError[] array = new ValidationError[count];
+			for (int i = 0; i < count; i++)
+				array[i] = createError(i);
+			list = Collections.unmodifiableList(Arrays.asList(array));
+			errors = list;
+		}
+		return list;
+	}
+	
+	
+	private ValidationError createError(int i) {
+		ValidationError template = templates[i];
+		switch (kinds[i]) {
+		case PropertyPath.Chain.OBJECT:
+			return new ValidationError(template, values[i]);
+		case PropertyPath.Chain.INT:
+			return new ValidationError(template, Integer.valueOf((int) primitives[i]));
+		case PropertyPath.Chain.LONG:
+			return new ValidationError(template, Long.valueOf(primitives[i]));
+		case PropertyPath.Chain.DOUBLE:
+			return new ValidationError(template, Double.valueOf(Double.longBitsToDouble(primitives[i])));
+		default:
+			return template;
+		}
 	}
 	
+	
 	/**
 	 * Get a map of [field, error-message] entries for this result, if this result has
 	 * no errors an empty map is returned.
 	 * 
+	 * <p>If a field has more than one error the map contains the message of the
+	 * first one.</p>
+	 * 
+	 * <p>The map of the last locale is kept, until an error is added or the
+	 * <code>MessageResolver</code> is changed. Resolvers that are expensive, for
+	 * example because they parse a pattern for every message, should cache, see
+	 * {@link TemplateMessageResolver}.</p>
+	 * 
 	 * @param locale the locale to use for resolving the messages. May be null, see
 	 *               {@link MessageResolver} for more info.
+	 * 
+	 * @return an unmodifiable map
 	 */
 	public Map<String, String> getErrorMessages(Locale locale) {
-		Map<String, String> msgs = new HashMap<String, String>();
-		for (ValidationError error: errors)
-			msgs.put(error.getField(), messageResolver.getMessage(error, locale));
+		Map<String, String> msgs = messages;
+		if (msgs != null && (messagesLocale == null ? locale == null : messagesLocale.equals(locale)))
+			return msgs;
+		if (count == 0)
+			return Collections.emptyMap();
+		
+		msgs = new HashMap<String, String>();
+		for (int i = 0; i < count; i++) {
+			String field = templates[i].getField();
+			if (! msgs.containsKey(field))
+				msgs.put(field, messageResolver.getMessage(templates[i], locale));
+		}
+		msgs = Collections.unmodifiableMap(msgs);
+		messages = msgs;
+		messagesLocale = locale;
 		return msgs;
 	}
 	
@@ -89,7 +326,7 @@ public class ValidationResult {
 	 * Returns true if this result does not contain errors.
 	 */
 	public boolean isValid() {
-		return errors.isEmpty();
+		return count == 0;
 	}
 	
 	
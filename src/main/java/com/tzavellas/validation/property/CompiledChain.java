@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.tzavellas.validation.PropertyValidator;
+import com.tzavellas.validation.ValidationError;
+import com.tzavellas.validation.validators.Validator;
+import com.tzavellas.validation.validators.simple.FloatValidators;
+import com.tzavellas.validation.validators.simple.IntegerValidators;
+import com.tzavellas.validation.validators.simple.StringValidators;
+
+/**
+ * The validators of a {@link LinkedValidatorBuilder} compiled into an array.
+ * 
+ * <p>The required validator is not part of the array, its error is returned
+ * directly by the builder when the value is null or fails the extra required
+ * check. Adjacent minimum and maximum checks of the same kind (for example
+ * <code>minLength</code> followed by <code>maxLength</code>) are fused into a
+ * single validator that reads the value once and returns the error of the
+ * check that fails first in the original order.</p>
+ * 
+ * <p><b>Thread safety:</b> This class is immutable.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+final class CompiledChain<T> {
+	
+	final PropertyValidator<T>[] validators;
+	
+	/** The error of the required validator, or null if the property is optional */
+	final ValidationError requiredError;
+	
+	
+	@SuppressWarnings("unchecked")
+	CompiledChain(List<PropertyValidator<T>> chain, PropertyValidator<T> required) {
+		List<PropertyValidator<T>> compiled = new ArrayList<PropertyValidator<T>>(chain.size());
+		PropertyValidator<T> previous = null;
+		for (PropertyValidator<T> v: chain) {
+			if (v == required)
+				continue;
+			PropertyValidator<T> fused = previous != null ? (PropertyValidator<T>) fuse(previous, v) : null;
+			if (fused != null) {
+				compiled.set(compiled.size() - 1, fused);
+				previous = null;
+			} else {
+				compiled.add(v);
+				previous = v;
+			}
+		}
+		this.validators = (PropertyValidator<T>[]) compiled.toArray(new PropertyValidator<?>[compiled.size()]);
+		this.requiredError = required != null ? required.getValidationError() : null;
+	}
+	
+	
+	/**
+	 * Fuse a minimum and a maximum check into a single validator.
+	 * 
+	 * @return the fused validator or null if the validators cannot be fused
+	 */
+	private static PropertyValidator<?> fuse(PropertyValidator<?> first, PropertyValidator<?> second) {
+		// subclasses may override validate(T)
+		if (first.getClass() != PropertyValidator.class || second.getClass() != PropertyValidator.class)
+			return null;
+		
+		Validator<?> a = first.getValidator();
+		Validator<?> b = second.getValidator();
+		if (a instanceof IntegerValidators.Min && b instanceof IntegerValidators.Max)
+			return new LongRange(first, ((IntegerValidators.Min) a).getMin(), second, ((IntegerValidators.Max) b).getMax(), true);
+		if (a instanceof IntegerValidators.Max && b instanceof IntegerValidators.Min)
+			return new LongRange(second, ((IntegerValidators.Min) b).getMin(), first, ((IntegerValidators.Max) a).getMax(), false);
+		
+		if (a instanceof FloatValidators.Min && b instanceof FloatValidators.Max)
+			return new DoubleRange(first, ((FloatValidators.Min) a).getMin(), second, ((FloatValidators.Max) b).getMax(), true);
+		if (a instanceof FloatValidators.Max && b instanceof FloatValidators.Min)
+			return new DoubleRange(second, ((FloatValidators.Min) b).getMin(), first, ((FloatValidators.Max) a).getMax(), false);
+		
+		if (a instanceof StringValidators.MinLength && b instanceof StringValidators.MaxLength)
+			return new LengthRange(first, ((StringValidators.MinLength) a).getMin(), second, ((StringValidators.MaxLength) b).getMax(), true);
+		if (a instanceof StringValidators.MaxLength && b instanceof StringValidators.MinLength)
+			return new LengthRange(second, ((StringValidators.MinLength) b).getMin(), first, ((StringValidators.MaxLength) a).getMax(), false);
+		
+		return null;
+	}
+	
+	
+	// -----------------------------------------------------------------------
+	
+	/**
+	 * A fused minimum and maximum check.
+	 */
+	private abstract static class Bounds<T> extends PropertyValidator<T> {
+		
+		private final ValidationError minError;
+		private final ValidationError maxError;
+		private final boolean minFirst;
+		
+		Bounds(PropertyValidator<?> min, PropertyValidator<?> max, boolean minFirst) {
+			super(min.getProperty());
+			this.minError = min.getValidationError();
+			this.maxError = max.getValidationError();
+			this.minFirst = minFirst;
+		}
+		
+		final ValidationError check(boolean belowMin, boolean aboveMax) {
+			if (belowMin && (minFirst || ! aboveMax))
+				return minError;
+			if (aboveMax)
+				return maxError;
+			return null;
+		}
+		
+		@Override
+		public final boolean isValid(T value) {
+			return validate(value) == null;
+		}
+	}
+	
+	private static final class LongRange extends Bounds<Number> {
+		
+		private final long min;
+		private final long max;
+		
+		LongRange(PropertyValidator<?> minValidator, long min, PropertyValidator<?> maxValidator, long max, boolean minFirst) {
+			super(minValidator, maxValidator, minFirst);
+			this.min = min;
+			this.max = max;
+		}
+		
+		@Override
+		public ValidationError validate(Number value) {
+			return validateLong(value.longValue());
+		}
+		
+		@Override
+		public ValidationError validateInt(int value) {
+			return validateLong(value);
+		}
+		
+		@Override
+		public ValidationError validateLong(long value) {
+			return check(value < min, value > max);
+		}
+	}
+	
+	private static final class DoubleRange extends Bounds<Number> {
+		
+		private final double min;
+		private final double max;
+		
+		DoubleRange(PropertyValidator<?> minValidator, double min, PropertyValidator<?> maxValidator, double max, boolean minFirst) {
+			super(minValidator, maxValidator, minFirst);
+			this.min = min;
+			this.max = max;
+		}
+		
+		@Override
+		public ValidationError validate(Number value) {
+			return validateDouble(value.doubleValue());
+		}
+		
+		@Override
+		public ValidationError validateDouble(double value) {
+			// written as negations, so that NaN fails both checks like the unfused validators
+			return check(! (value >= min), ! (value <= max));
+		}
+	}
+	
+	private static final class LengthRange extends Bounds<String> {
+		
+		private final int min;
+		private final int max;
+		
+		LengthRange(PropertyValidator<?> minValidator, int min, PropertyValidator<?> maxValidator, int max, boolean minFirst) {
+			super(minValidator, maxValidator, minFirst);
+			this.min = min;
+			this.max = max;
+		}
+		
+		@Override
+		public ValidationError validate(String value) {
+			int length = value.length();
+			return check(length < min, length > max);
+		}
+	}
+}
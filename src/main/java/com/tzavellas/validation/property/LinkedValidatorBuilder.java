@@ -16,6 +16,7 @@
  */
 package com.tzavellas.validation.property;
 
+import java.lang.reflect.Method;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
 
@@ -47,8 +48,14 @@ import com.tzavellas.validation.validators.simple.ObjectValidators;
 public class LinkedValidatorBuilder<T, V extends LinkedValidatorBuilder>
 extends PropertyValidator<T> {
 	
-	private boolean required = false;
 	private LinkedList<PropertyValidator<T>> validators = new LinkedList<PropertyValidator<T>>();
+	private PropertyValidator<T> requiredValidator;
+	
+	/** The compiled validators, written racily (CompiledChain is immutable) */
+	private CompiledChain<T> compiled;
+	
+	/** If the required validator is customized, primitive values must be boxed for it */
+	private final boolean customRequiredCheck = overridesExtraRequiredCheck(getClass());
 	
 	
 	// ---------------------------------------------------------- Constructors
@@ -86,12 +93,14 @@ extends PropertyValidator<T> {
 	 */
 	@Override
 	public final ValidationError validate(T value) {
-		// If it is not required and the value is null (no value) then we are ok
-		if (!required && (value == null || ! extraRequiredCheck(value)))
-			return null;
+		CompiledChain<T> chain = compiled();
+		
+		// If the value is null (no value) then we are ok, unless it is required
+		if (value == null || ! extraRequiredCheck(value))
+			return chain.requiredError;
 		
 		// ... else consult all the validators
-		for (PropertyValidator<T> validator: validators) {
+		for (PropertyValidator<T> validator: chain.validators) {
 			ValidationError error = validator.validate(value);
 			if (error != null)
 				return error;
@@ -102,6 +111,66 @@ extends PropertyValidator<T> {
 	}
 	
 	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>The value is passed unboxed to each validator, and the required
+	 * check is skipped since a primitive value is never null.</p>
+	 */
+	@Override
+	public final ValidationError validateInt(int value) {
+		if (customRequiredCheck)
+			return validate((T) Integer.valueOf(value));
+		
+		for (PropertyValidator<T> validator: compiled().validators) {
+			ValidationError error = validator.validateInt(value);
+			if (error != null)
+				return error;
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>The value is passed unboxed to each validator, and the required
+	 * check is skipped since a primitive value is never null.</p>
+	 */
+	@Override
+	public final ValidationError validateLong(long value) {
+		if (customRequiredCheck)
+			return validate((T) Long.valueOf(value));
+		
+		for (PropertyValidator<T> validator: compiled().validators) {
+			ValidationError error = validator.validateLong(value);
+			if (error != null)
+				return error;
+		}
+		return null;
+	}
+	
+	
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * <p>The value is passed unboxed to each validator, and the required
+	 * check is skipped since a primitive value is never null.</p>
+	 */
+	@Override
+	public final ValidationError validateDouble(double value) {
+		if (customRequiredCheck)
+			return validate((T) Double.valueOf(value));
+		
+		for (PropertyValidator<T> validator: compiled().validators) {
+			ValidationError error = validator.validateDouble(value);
+			if (error != null)
+				return error;
+		}
+		return null;
+	}
+	
+	
     // ---------------------------- methods specific to LinkedValidatorBuilder
 	
 	/**
@@ -110,7 +179,58 @@ extends PropertyValidator<T> {
 	 * @param v the validator to add.
 	 */
 	protected void addValidator(PropertyValidator<T> v) {
+		checkNotFrozen();
 		validators.addLast(v);
+		compiled = null;
+	}
+	
+	
+	/**
+	 * Compile the validators of this builder into an array, fusing adjacent
+	 * minimum and maximum checks into range checks.
+	 * 
+	 * <p>The validators are compiled on the first validation and again after
+	 * each modification, so calling this method is optional. It can be used to
+	 * compile the validators while the validation rules are configured.
+	 * {@link #freeze()} also compiles the validators.</p>
+	 * 
+	 * @return the <code>this</code> object to allow the chaining of method
+	 *         invocations.
+	 */
+	public final V compile() {
+		if (! isFrozen())
+			compiled = new CompiledChain<T>(validators, requiredValidator);
+		return (V) this;
+	}
+	
+	
+	/**
+	 * Compile and freeze this builder and all of its validators. After this
+	 * method is called the methods that add or customize validators throw an
+	 * <code>IllegalStateException</code>.
+	 * 
+	 * @return the <code>this</code> object to allow the chaining of method
+	 *         invocations.
+	 */
+	@Override
+	public final V freeze() {
+		if (! isFrozen()) {
+			for (PropertyValidator<T> v: validators)
+				v.freeze();
+			compiled = new CompiledChain<T>(validators, requiredValidator);
+			super.freeze();
+		}
+		return (V) this;
+	}
+	
+	
+	private CompiledChain<T> compiled() {
+		CompiledChain<T> chain = compiled;
+		if (chain == null) {
+			chain = new CompiledChain<T>(validators, requiredValidator);
+			compiled = chain;
+		}
+		return chain;
 	}
 	
 	
@@ -148,16 +268,21 @@ extends PropertyValidator<T> {
 	 * @see LinkedValidatorBuilder#extraRequiredCheck(Object)
 	 */
 	public final V required() {
-		required = true;
+		checkNotFrozen();
+		if (requiredValidator != null)
+			return (V) this;
+		
 		// the required validator must be the first in the chain
-		validators.addFirst(new PropertyValidator.Builder<T>(property)
+		requiredValidator = new PropertyValidator.Builder<T>(property)
 			.withErrorCode("validator.required")
 			.withDefaultMessage("This is a required property")
 			.withValidator(new Validator<T>() {
 				public boolean isValid(T value) {
 					return value != null ? extraRequiredCheck(value) : false;
 				}
-			}).build());
+			}).build();
+		validators.addFirst(requiredValidator);
+		compiled = null;
 		
 		return (V) this;
 	}
@@ -171,9 +296,11 @@ extends PropertyValidator<T> {
 	 * @return the <code>this</code> object to allow the chaining of method
 	 *         invocations.
 	 * 
-	 * @throws IllegalStateException if no validator was previously specified.
+	 * @throws IllegalStateException if no validator was previously specified or
+	 *         if this builder is frozen.
 	 */
 	public V withErrorCode(String code) throws IllegalStateException {
+		checkNotFrozen();
 		try {
 			PropertyValidator<T> validator = validators.getLast();
 			validator.setErrorCode(code);
@@ -194,9 +321,11 @@ extends PropertyValidator<T> {
 	 * @return the <code>this</code> object to allow the chaining of method
 	 *         invocations.
 	 * 
-	 * @throws IllegalStateException if no validator was previously specified.
+	 * @throws IllegalStateException if no validator was previously specified or
+	 *         if this builder is frozen.
 	 */
 	public V withDefaultMessage(String message) throws IllegalStateException {
+		checkNotFrozen();
 		try {
 			PropertyValidator<T> validator = validators.getLast();
 			validator.setDefaultErrorMessage(message);
@@ -223,4 +352,15 @@ extends PropertyValidator<T> {
 			.withValidator(new ObjectValidators.In<T>(objects)).build());
 		return (V) this;
 	}
+	
+	
+	private static boolean overridesExtraRequiredCheck(Class<?> cls) {
+		for (Class<?> c = cls; c != LinkedValidatorBuilder.class; c = c.getSuperclass()) {
+			for (Method m: c.getDeclaredMethods()) {
+				if (m.getName().equals("extraRequiredCheck") && m.getParameterTypes().length == 1)
+					return true;
+			}
+		}
+		return false;
+	}
 }
@@ -20,6 +20,7 @@ import java.util.regex.Pattern;
 
 import com.tzavellas.validation.PropertyValidator;
 import com.tzavellas.validation.validators.CreditCardValidator;
+import com.tzavellas.validation.validators.Dfa;
 import com.tzavellas.validation.validators.EmailValidator;
 import com.tzavellas.validation.validators.ISBNValidator;
 import com.tzavellas.validation.validators.UrlValidator;
@@ -99,14 +100,40 @@ public class StringValidatorBuilder extends LinkedValidatorBuilder<String, Strin
 	/**
 	 * Validates that a {@link String} object matches the specified regular expression.
 	 * 
+	 * <p>Regular expressions in the subset supported by {@link Dfa} are matched
+	 * in linear time. The work of matching any other regular expression is
+	 * bounded, and values that exceed the bound are rejected.</p>
+	 * 
 	 * @see Pattern
+	 * @see StringValidators.Regex#DEFAULT_STEPS_PER_CHAR
 	 */
 	public StringValidatorBuilder regex(final String regex) {
+		return regex(regex, Integer.MAX_VALUE);
+	}
+	
+	
+	/**
+	 * Validates that a {@link String} object has length less than or equal to
+	 * <code>maxLength</code> and matches the specified regular expression.
+	 * 
+	 * <p>Use this method for values that come from untrusted input, the length
+	 * is checked before the value is given to the regex engine. Regular
+	 * expressions in the subset supported by {@link Dfa} are matched in linear
+	 * time. The work of matching any other regular expression is also bounded,
+	 * and values that exceed the bound are rejected.</p>
+	 * 
+	 * @see Pattern
+	 * @see StringValidators.Regex#DEFAULT_STEPS_PER_CHAR
+	 */
+	public StringValidatorBuilder regex(final String regex, final int maxLength) {
+		StringValidators.Regex validator = StringValidators.Regex.linear(regex, maxLength);
+		if (validator == null)
+			validator = new StringValidators.Regex(regex, maxLength, StringValidators.Regex.DEFAULT_STEPS_PER_CHAR);
 		addValidator(new PropertyValidator.Builder<String>(property)
 			.withErrorCode("validator.string.regex")
 			.withDefaultMessage("Does not match " + regex)
 			.withMessageArgs(regex)
-			.withValidator(new StringValidators.Regex(regex)).build());
+			.withValidator(validator).build());
 		return this;
 	}
 	
@@ -124,6 +151,24 @@ public class StringValidatorBuilder extends LinkedValidatorBuilder<String, Strin
 	}
 	
 	
+	/**
+	 * Validates that a {@link String} object is a valid credit card number of
+	 * one of the specified card types.
+	 * 
+	 * @param cardTypes the sum of the allowed card type options of
+	 *                  {@link CreditCardValidator}, for example
+	 *                  <code>CreditCardValidator.VISA + CreditCardValidator.JCB</code>
+	 */
+	public PropertyValidator<String> creditCard(int cardTypes) {
+		addValidator(new PropertyValidator.Builder<String>(property)
+			.withErrorCode("validator.string.credit.card")
+			.withDefaultMessage("Must be a valid credit card number")
+			.withValidator(new CreditCardValidator(cardTypes))
+			.build());
+		return this;
+	}
+	
+	
 	/**
 	 * Validates that a {@link String} object is a valid ISBN.
 	 */
@@ -135,6 +180,24 @@ public class StringValidatorBuilder extends LinkedValidatorBuilder<String, Strin
 			.build());
 		return this;
 	}
+	
+	
+	/**
+	 * Validates that a {@link String} object is a valid code in one of the
+	 * specified variants.
+	 * 
+	 * @param variants the sum of the allowed variant options of
+	 *                 {@link ISBNValidator}, for example
+	 *                 <code>ISBNValidator.ISBN_10 + ISBNValidator.ISBN_13</code>
+	 */
+	public PropertyValidator<String> isbn(int variants) {
+		addValidator(new PropertyValidator.Builder<String>(property)
+			.withErrorCode("validator.string.isbn")
+			.withDefaultMessage("Must be a valid ISBN")
+			.withValidator(new ISBNValidator(variants))
+			.build());
+		return this;
+	}
 
 	
 	/**
@@ -17,14 +17,17 @@
 package com.tzavellas.validation.property;
 
 import com.tzavellas.validation.BeanValidator;
+import com.tzavellas.validation.ElementsValidator;
+import com.tzavellas.validation.PropertyValidator;
 
 /**
  * A class with short factory methods to create the initial <code>PropertyValidator</code>
  * objects in the validation DSL.
  * 
- * <p>All the <code>PropertyValidator</code>s created by the methods of this class are of type
- * {@link LinkedValidatorBuilder} and contain methods that can be chained to create
- * the exact constraint to validate the property values against.</p>
+ * <p>The <code>PropertyValidator</code>s created by the methods of this class, except
+ * <code>each</code> and <code>eachValue</code>, are of type {@link LinkedValidatorBuilder}
+ * and contain methods that can be chained to create the exact constraint to validate
+ * the property values against.</p>
  *  
  * <p>An example of the validation DSL:</p>
  * <pre>
@@ -33,7 +36,10 @@ import com.tzavellas.validation.BeanValidator;
  *          string("lastName").required(),
  *          string("email").required().email(),
  *          integer("age").min(18),
- *          date("birthdate").past());
+ *          date("birthdate").past(),
+ *          each("items",
+ *                  string("sku").required(),
+ *                  integer("quantity").min(1)));
  * </pre>
  * 
  * @see BeanValidator
@@ -101,4 +107,33 @@ public abstract class Validators {
 	public static FloatValidatorBuilder floatingPoint(String name) {
 		return new FloatValidatorBuilder(name);
 	}
+	
+	
+	/**
+	 * Validate the elements of a <code>List</code>, array or <code>Iterable</code>
+	 * property. The failures are reported with index-qualified fields, such as
+	 * <code>items[17].sku</code>.
+	 * 
+	 * @param name the name of the collection property
+	 * @param validators the validators of the properties of the elements
+	 * 
+	 * @see ElementsValidator
+	 */
+	public static ElementsValidator each(String name, PropertyValidator<?>...validators) {
+		return ElementsValidator.elements(name, validators);
+	}
+	
+	
+	/**
+	 * Validate the values of a <code>Map</code> property. The failures are reported
+	 * with key-qualified fields, such as <code>prices[EUR].amount</code>.
+	 * 
+	 * @param name the name of the map property
+	 * @param validators the validators of the properties of the values
+	 * 
+	 * @see ElementsValidator
+	 */
+	public static ElementsValidator eachValue(String name, PropertyValidator<?>...validators) {
+		return ElementsValidator.mapValues(name, validators);
+	}
 }
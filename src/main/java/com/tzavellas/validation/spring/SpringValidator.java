@@ -24,6 +24,7 @@ import org.springframework.validation.Validator;
 import com.tzavellas.validation.BeanValidator;
 import com.tzavellas.validation.PropertyValidator;
 import com.tzavellas.validation.ValidationError;
+import com.tzavellas.validation.ValidationErrorSink;
 
 /**
  * An adapter of the {@link BeanValidator} to the Spring's {@link Validator} interface.
@@ -64,7 +65,7 @@ public class SpringValidator implements Validator {
 	 * <p>For an empty <code>BeanValidator</code> all objects are valid.</p>
 	 */
 	public SpringValidator(Class<?> supportedClass) {
-		this(supportedClass, new BeanValidator());
+		this(supportedClass, new PropertyValidator<?>[0]);
 	}
 	
 	/**
@@ -73,9 +74,14 @@ public class SpringValidator implements Validator {
 	 * @param supportedClass the Class this validator supports
 	 * @param propertyValidators the <code>PropertyValidator</code>s to by used by the wrapped
 	 *                           <code>BeanValidator</code>
+	 * 
+	 * @throws IllegalArgumentException if a property of the specified validators does not
+	 *         exist in the supported class
+	 * 
+	 * @see BeanValidator#forClass(Class, PropertyValidator...)
 	 */
 	public SpringValidator(Class<?> supportedClass, PropertyValidator<?>...propertyValidators) {
-		this(supportedClass, new BeanValidator(propertyValidators));
+		this(supportedClass, createValidator(supportedClass, propertyValidators));
 	}
 	
 	/**
@@ -89,6 +95,11 @@ public class SpringValidator implements Validator {
 		this.validator = validator;
 	}
 	
+	private static BeanValidator createValidator(Class<?> supportedClass, PropertyValidator<?>[] propertyValidators) {
+		Assert.notNull(supportedClass, "You must provide a class!");
+		return BeanValidator.forClass(supportedClass, propertyValidators);
+	}
+	
 	/**
 	 * Provide a {@link PropertyValidator} to be used by the wrapped {@link BeanValidator}.
 	 * 
@@ -109,9 +120,12 @@ public class SpringValidator implements Validator {
 	/**
 	 * {@inheritDoc}
 	 */
-	public final void validate(Object target, Errors errors) {
-		for (ValidationError msg: validator.validate(target).getErrors())
-			errors.rejectValue(msg.getField(), msg.getErrorCode(), msg.getArguments(), msg.getDefaultMessage());
+	public final void validate(Object target, final Errors errors) {
+		validator.validate(target, new ValidationErrorSink() {
+			public void reject(Object bean, ValidationError msg, Object rejectedValue) {
+				errors.rejectValue(msg.getField(), msg.getErrorCode(), msg.getArguments(), msg.getDefaultMessage());
+			}
+		});
 		doExtraValidation(target, errors);
 	}
 	
@@ -125,8 +139,11 @@ public class SpringValidator implements Validator {
 	 * @return true if the specified object is valid, else false.
 	 */
 	public boolean isValid(Object target) {
+		// fail fast, the errors of the BeanValidator are not needed
+		if (! validator.isValid(target))
+			return false;
 		Errors errors = new BeanPropertyBindingResult(target, "target");
-		validate(target, errors);
+		doExtraValidation(target, errors);
 		return ! errors.hasErrors();
 	}
 	
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation.validators;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * An interface for validators that complete asynchronously, for example
+ * validators that need to perform I/O to check a value.
+ * 
+ * <p>Implementations may either return a stage that is completed by some other
+ * thread, or block and return a completed stage. The caller invokes
+ * {@link #isValid(Object)} in a task of its executor, so blocking implementations
+ * still run concurrently with each other.</p>
+ *
+ * @param <T> the type of objects to validate.
+ * 
+ * @author Spiros Tzavellas
+ * 
+ * @see Validator
+ */
+public interface AsyncValidator<T> {
+	
+	/**
+	 * Assert that the specified object is valid.
+	 * 
+	 * @param value the object to validate
+	 * @return a stage that completes with true if valid else false
+	 */
+	CompletionStage<Boolean> isValid(T value);
+}
@@ -17,6 +17,7 @@
 package com.tzavellas.validation.validators;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
 /**
@@ -31,6 +32,10 @@ import java.util.Collection;
  * the CreditCardType interface and pass an instance into the 
  * <code>addAllowedCardType</code> method.</p>
  * 
+ * <p>The supported card types are matched against a table of issuer (BIN)
+ * ranges and lengths using the first six digits of the number, so validating
+ * a number does not allocate.</p>
+ * 
  * <p>For a similar implementation in Perl, reference Sean M. Burke's
  * <a href="http://www.speech.cs.cmu.edu/~sburke/pub/luhn_lib.html">script</a>.
  * More information is also available
@@ -73,9 +78,52 @@ public class CreditCardValidator implements Validator<String> {
      * Option specifying that Discover cards are allowed.
      */
     public static final int DISCOVER = 1 << 3;
+
+    /**
+     * Option specifying that JCB cards are allowed.
+     */
+    public static final int JCB = 1 << 4;
+
+    /**
+     * Option specifying that Diners Club cards are allowed.
+     */
+    public static final int DINERS = 1 << 5;
+
+    /**
+     * Option specifying that UnionPay cards are allowed.
+     */
+    public static final int UNIONPAY = 1 << 6;
+
+    /**
+     * The issuer ranges of the supported card types, four entries per range:
+     * the option, the first and the last six digit prefix, and a bit mask of
+     * the allowed lengths.
+     */
+    private static final int[] CARD_RANGES = concat(
+        // Change to support Visa Carte Blue used in France has been removed - see Bug 35926
+        range(VISA, 4, 4, 13, 16, 19),
+        range(AMEX, 34, 34, 15),
+        range(AMEX, 37, 37, 15),
+        range(MASTERCARD, 51, 55, 16),
+        range(MASTERCARD, 2221, 2720, 16),
+        range(DISCOVER, 6011, 6011, 16, 17, 18, 19),
+        range(DISCOVER, 644, 649, 16, 17, 18, 19),
+        range(DISCOVER, 65, 65, 16, 17, 18, 19),
+        range(JCB, 3528, 3589, 16, 17, 18, 19),
+        range(DINERS, 300, 305, 14, 15, 16, 17, 18, 19),
+        range(DINERS, 3095, 3095, 14, 15, 16, 17, 18, 19),
+        range(DINERS, 36, 36, 14, 15, 16, 17, 18, 19),
+        range(DINERS, 38, 39, 14, 15, 16, 17, 18, 19),
+        range(UNIONPAY, 62, 62, 16, 17, 18, 19));
+
+    /**
+     * The ranges of {@link #CARD_RANGES} that are allowed by the options,
+     * three entries per range: the first and the last prefix and the lengths.
+     */
+    private final int[] ranges;
     
     /**
-     * The CreditCardTypes that are allowed to pass validation.
+     * The custom CreditCardTypes that are allowed to pass validation.
      */
     private Collection<CreditCardType> cardTypes = new ArrayList<CreditCardType>();
 
@@ -97,21 +145,16 @@ public class CreditCardValidator implements Validator<String> {
         super();
 
         Flags f = new Flags(options);
-        if (f.isOn(VISA)) {
-            this.cardTypes.add(new Visa());
-        }
-
-        if (f.isOn(AMEX)) {
-            this.cardTypes.add(new Amex());
-        }
-
-        if (f.isOn(MASTERCARD)) {
-            this.cardTypes.add(new Mastercard());
-        }
-
-        if (f.isOn(DISCOVER)) {
-            this.cardTypes.add(new Discover());
+        int[] allowed = new int[CARD_RANGES.length];
+        int n = 0;
+        for (int i = 0; i < CARD_RANGES.length; i += 4) {
+            if (f.isOn(CARD_RANGES[i])) {
+                allowed[n++] = CARD_RANGES[i + 1];
+                allowed[n++] = CARD_RANGES[i + 2];
+                allowed[n++] = CARD_RANGES[i + 3];
+            }
         }
+        this.ranges = Arrays.copyOf(allowed, n);
     }
 
     /**
@@ -129,9 +172,18 @@ public class CreditCardValidator implements Validator<String> {
         if (!this.luhnCheck(card)) {
             return false;
         }
-        
-        cardTypes.contains(null);
-        
+
+        int bin = 0;
+        for (int i = 0; i < 6; i++) {
+            bin = bin * 10 + (card.charAt(i) - '0');
+        }
+        int length = 1 << card.length();
+        for (int i = 0; i < ranges.length; i += 3) {
+            if (bin >= ranges[i] && bin <= ranges[i + 1] && (ranges[i + 2] & length) != 0) {
+                return true;
+            }
+        }
+
         for (CreditCardType type : cardTypes) {
         	if (type.matches(card)) {
                 return true;
@@ -162,12 +214,10 @@ public class CreditCardValidator implements Validator<String> {
         // number must be validated as 0..9 numeric first!!
         int digits = cardNumber.length();
         int oddOrEven = digits & 1;
-        long sum = 0;
+        int sum = 0;
         for (int count = 0; count < digits; count++) {
-            int digit = 0;
-            try {
-                digit = Integer.parseInt(cardNumber.charAt(count) + "");
-            } catch(NumberFormatException e) {
+            int digit = cardNumber.charAt(count) - '0';
+            if (digit < 0 || digit > 9) {
                 return false;
             }
 
@@ -205,38 +255,26 @@ public class CreditCardValidator implements Validator<String> {
     }
     
     /**
-     *  Change to support Visa Carte Blue used in France
-     *  has been removed - see Bug 35926
+     * Returns the options, the six digit prefix range and the bit mask of the
+     * lengths of an issuer range.
      */
-    private static class Visa implements CreditCardType {
-        private static final String PREFIX = "4";
-        public boolean matches(String card) {
-            return (
-                card.substring(0, 1).equals(PREFIX)
-                    && (card.length() == 13 || card.length() == 16));
+    private static int[] range(int option, int first, int last, int... lengths) {
+        int scale = 1;
+        for (int p = first; p < 100000; p *= 10) {
+            scale *= 10;
         }
-    }
-            
-    private static class Amex implements CreditCardType {
-        private static final String PREFIX = "34,37,";
-        public boolean matches(String card) {
-            String prefix2 = card.substring(0, 2) + ",";
-            return ((PREFIX.indexOf(prefix2) != -1) && (card.length() == 15));
+        int mask = 0;
+        for (int length : lengths) {
+            mask |= 1 << length;
         }
+        return new int[] { option, first * scale, (last + 1) * scale - 1, mask };
     }
-    
-    private static class Discover implements CreditCardType {
-        private static final String PREFIX = "6011";
-        public boolean matches(String card) {
-            return (card.substring(0, 4).equals(PREFIX) && (card.length() == 16));
-        }
-    }
-    
-    private static class Mastercard implements CreditCardType {
-        private static final String PREFIX = "51,52,53,54,55,";
-        public boolean matches(String card) {
-            String prefix2 = card.substring(0, 2) + ",";
-            return ((PREFIX.indexOf(prefix2) != -1) && (card.length() == 16));
+
+    private static int[] concat(int[]... ranges) {
+        int[] result = new int[ranges.length * 4];
+        for (int i = 0; i < ranges.length; i++) {
+            System.arraycopy(ranges[i], 0, result, i * 4, 4);
         }
+        return result;
     }
 }
@@ -0,0 +1,658 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation.validators;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * A table driven matcher for a subset of the {@link java.util.regex.Pattern}
+ * syntax that runs in linear time and does not allocate.
+ * 
+ * <p>The supported subset consists of literals, the common escapes, the
+ * predefined classes <code>. \d \D \s \S \w \W</code>, the ASCII POSIX classes
+ * (<code>\p{Alpha}</code>, <code>\p{Digit}</code>, <code>\p{Alnum}</code>,
+ * <code>\p{Upper}</code>, <code>\p{Lower}</code>, <code>\p{Punct}</code>,
+ * <code>\p{Space}</code>, <code>\p{XDigit}</code>, <code>\p{ASCII}</code>),
+ * simple character classes with ranges, capturing and non-capturing groups,
+ * alternation, greedy and reluctant quantifiers, a leading <code>^</code> and
+ * a trailing <code>$</code>. Within this subset {@link #matches(CharSequence)}
+ * accepts the same strings as <code>Pattern.matches(regex, input)</code>.</p>
+ * 
+ * <p>This class is internal to the library and should not be used directly in
+ * client code.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+public final class Dfa {
+	
+	private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+	private static final int MAX_NFA_STATES = 10000;
+	private static final int MAX_DFA_STATES = 2000;
+	
+	private final String regex;
+	private final int[] boundaries;
+	private final int[] asciiClasses;
+	private final int classCount;
+	private final int[] transitions;
+	private final boolean[] accepting;
+	
+	private Dfa(String regex, int[] boundaries, int[] transitions, boolean[] accepting) {
+		this.regex = regex;
+		this.boundaries = boundaries;
+		this.classCount = boundaries.length;
+		this.transitions = transitions;
+		this.accepting = accepting;
+		this.asciiClasses = new int[128];
+		for (int c = 0; c < 128; c++)
+			asciiClasses[c] = classOf(boundaries, c);
+	}
+	
+	/**
+	 * Compile the specified regular expression.
+	 * 
+	 * @param regex a regular expression that is valid for
+	 *              {@link java.util.regex.Pattern}
+	 * @return the matcher or <code>null</code> if the regular expression is
+	 *         not in the supported subset or its automaton is too large
+	 */
+	public static Dfa compile(String regex) {
+		Node root;
+		try {
+			root = new Parser(regex).parse();
+		} catch (UnsupportedOperationException e) {
+			return null;
+		}
+		
+		Nfa nfa = new Nfa();
+		int start = nfa.newState();
+		int end = nfa.newState();
+		if (!nfa.build(root, start, end))
+			return null;
+		return nfa.toDfa(regex, start, end);
+	}
+	
+	/**
+	 * Test whether the whole input matches the regular expression.
+	 */
+	public boolean matches(CharSequence input) {
+		int state = 0;
+		int length = input.length();
+		for (int i = 0; i < length; i++) {
+			char c = input.charAt(i);
+			int cls;
+			if (c < 128) {
+				cls = asciiClasses[c];
+			} else {
+				int cp = c;
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(input.charAt(i + 1)))
+					cp = Character.toCodePoint(c, input.charAt(++i));
+				cls = classOf(boundaries, cp);
+			}
+			state = transitions[state * classCount + cls];
+			if (state < 0)
+				return false;
+		}
+		return accepting[state];
+	}
+	
+	/**
+	 * Returns the number of states of the automaton.
+	 */
+	public int getStateCount() {
+		return accepting.length;
+	}
+	
+	@Override
+	public String toString() {
+		return regex;
+	}
+	
+	private static int classOf(int[] boundaries, int cp) {
+		int i = Arrays.binarySearch(boundaries, cp);
+		return i >= 0 ? i : -i - 2;
+	}
+	
+	// -----------------------------------------------------------------------
+	
+	/**
+	 * A node of the syntax tree, either a set of code points, a sequence, an
+	 * alternation or a repetition.
+	 */
+	private static final class Node {
+		static final int SET = 0, SEQUENCE = 1, ALTERNATION = 2, REPEAT = 3;
+		
+		final int type;
+		final int[] ranges;
+		final List<Node> children = new ArrayList<Node>();
+		int min, max;
+		
+		Node(int type, int[] ranges) {
+			this.type = type;
+			this.ranges = ranges;
+		}
+		
+		static Node repeat(Node child, int min, int max) {
+			Node n = new Node(REPEAT, null);
+			n.children.add(child);
+			n.min = min;
+			n.max = max;
+			return n;
+		}
+	}
+	
+	/**
+	 * A recursive descent parser that throws UnsupportedOperationException
+	 * for anything outside the supported subset.
+	 */
+	private static final class Parser {
+		
+		private static final int[] ANY = { 0, MAX_CODE_POINT };
+		private static final int[] DOT = complement(new int[] { '\n', '\n', '\r', '\r', 0x85, 0x85, 0x2028, 0x2029 });
+		private static final int[] DIGIT = { '0', '9' };
+		private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+		private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+		private static final int[] UPPER = { 'A', 'Z' };
+		private static final int[] LOWER = { 'a', 'z' };
+		private static final int[] ALPHA = { 'A', 'Z', 'a', 'z' };
+		private static final int[] ALNUM = { '0', '9', 'A', 'Z', 'a', 'z' };
+		private static final int[] PUNCT = { '!', '/', ':', '@', '[', '`', '{', '~' };
+		private static final int[] XDIGIT = { '0', '9', 'A', 'F', 'a', 'f' };
+		private static final int[] ASCII = { 0, 0x7F };
+		
+		private final String regex;
+		private int pos;
+		
+		Parser(String regex) {
+			this.regex = regex;
+		}
+		
+		Node parse() {
+			if (peek('^'))
+				pos++;
+			Node n = alternation(0);
+			if (pos != regex.length())
+				throw unsupported();
+			return n;
+		}
+		
+		private Node alternation(int depth) {
+			Node alt = new Node(Node.ALTERNATION, null);
+			alt.children.add(sequence(depth));
+			while (peek('|')) {
+				pos++;
+				alt.children.add(sequence(depth));
+			}
+			return alt.children.size() == 1 ? alt.children.get(0) : alt;
+		}
+		
+		private Node sequence(int depth) {
+			Node seq = new Node(Node.SEQUENCE, null);
+			while (pos < regex.length()) {
+				int c = regex.codePointAt(pos);
+				if (c == '|' || c == ')')
+					break;
+				if (c == '$') {
+					// only a trailing $ which is a no-op for a whole input match
+					if (depth != 0 || pos + 1 != regex.length())
+						throw unsupported();
+					pos++;
+					break;
+				}
+				seq.children.add(quantified(atom(depth)));
+			}
+			return seq;
+		}
+		
+		private Node quantified(Node atom) {
+			if (pos == regex.length())
+				return atom;
+			int min, max;
+			switch (regex.charAt(pos)) {
+			case '*': min = 0; max = -1; pos++; break;
+			case '+': min = 1; max = -1; pos++; break;
+			case '?': min = 0; max = 1; pos++; break;
+			case '{':
+				pos++;
+				min = number();
+				max = min;
+				if (peek(',')) {
+					pos++;
+					max = peek('}') ? -1 : number();
+				}
+				expect('}');
+				break;
+			default:
+				return atom;
+			}
+			if (peek('?')) {
+				// a reluctant quantifier accepts the same inputs for a whole match
+				pos++;
+			}
+			if (peek('+') || peek('*') || peek('?') || peek('{'))
+				throw unsupported();
+			return Node.repeat(atom, min, max);
+		}
+		
+		private Node atom(int depth) {
+			int c = regex.codePointAt(pos);
+			pos += Character.charCount(c);
+			switch (c) {
+			case '(':
+				if (peek('?')) {
+					if (!regex.startsWith("?:", pos))
+						throw unsupported();
+					pos += 2;
+				}
+				Node n = alternation(depth + 1);
+				expect(')');
+				return n;
+			case '[':
+				return new Node(Node.SET, characterClass());
+			case '.':
+				return new Node(Node.SET, DOT);
+			case '\\':
+				return new Node(Node.SET, escape(false));
+			case '^': case '$': case '*': case '+': case '?': case '{':
+				throw unsupported();
+			default:
+				return new Node(Node.SET, new int[] { c, c });
+			}
+		}
+		
+		private int[] characterClass() {
+			boolean negated = false;
+			if (peek('^')) {
+				negated = true;
+				pos++;
+			}
+			if (peek(']'))
+				throw unsupported();
+			List<int[]> sets = new ArrayList<int[]>();
+			boolean first = true;
+			while (!peek(']')) {
+				if (pos == regex.length() || peek('[') || regex.startsWith("&&", pos))
+					throw unsupported();
+				if (peek('-') && !first && !regex.startsWith("-]", pos))
+					throw unsupported();
+				int[] item = classItem();
+				if (peek('-') && !regex.startsWith("-]", pos)) {
+					pos++;
+					if (peek('[') || peek('&'))
+						throw unsupported();
+					int[] to = classItem();
+					if (item.length != 2 || item[0] != item[1] || to.length != 2 || to[0] != to[1] || item[0] > to[0])
+						throw unsupported();
+					item = new int[] { item[0], to[0] };
+				}
+				sets.add(item);
+				first = false;
+			}
+			pos++;
+			int[] set = union(sets);
+			return negated ? complement(set) : set;
+		}
+		
+		private int[] classItem() {
+			int c = regex.codePointAt(pos);
+			pos += Character.charCount(c);
+			if (c == '\\')
+				return escape(true);
+			return new int[] { c, c };
+		}
+		
+		private int[] escape(boolean inClass) {
+			if (pos == regex.length())
+				throw unsupported();
+			int c = regex.codePointAt(pos);
+			pos += Character.charCount(c);
+			switch (c) {
+			case 'd': return DIGIT;
+			case 'D': return complement(DIGIT);
+			case 's': return SPACE;
+			case 'S': return complement(SPACE);
+			case 'w': return WORD;
+			case 'W': return complement(WORD);
+			case 'p': return property();
+			case 'P': return complement(property());
+			case 't': return single('\t');
+			case 'n': return single('\n');
+			case 'r': return single('\r');
+			case 'f': return single('\f');
+			case 'a': return single('\u0007');
+			case 'e': return single('\u001B');
+			case '0': return single(octal());
+			case 'x': return single(hex(2));
+			case 'u':
+				int u = hex(4);
+				if (Character.isSurrogate((char) u))
+					throw unsupported();
+				return single(u);
+			default:
+				if (c < 128 && !Character.isLetterOrDigit(c))
+					return single(c);
+				throw unsupported();
+			}
+		}
+		
+		private int[] property() {
+			int close = regex.indexOf('}', pos);
+			if (!peek('{') || close == -1)
+				throw unsupported();
+			String name = regex.substring(pos + 1, close);
+			pos = close + 1;
+			if (name.equals("Alpha")) return ALPHA;
+			if (name.equals("Digit")) return DIGIT;
+			if (name.equals("Alnum")) return ALNUM;
+			if (name.equals("Upper")) return UPPER;
+			if (name.equals("Lower")) return LOWER;
+			if (name.equals("Punct")) return PUNCT;
+			if (name.equals("Space")) return SPACE;
+			if (name.equals("XDigit")) return XDIGIT;
+			if (name.equals("ASCII")) return ASCII;
+			throw unsupported();
+		}
+		
+		private int octal() {
+			int value = 0;
+			int digits = 0;
+			while (digits < 3 && pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '7') {
+				int next = value * 8 + (regex.charAt(pos) - '0');
+				if (next > 0377)
+					break;
+				value = next;
+				digits++;
+				pos++;
+			}
+			if (digits == 0)
+				throw unsupported();
+			return value;
+		}
+		
+		private int hex(int digits) {
+			if (pos + digits > regex.length())
+				throw unsupported();
+			int value = 0;
+			for (int i = 0; i < digits; i++) {
+				int d = Character.digit(regex.charAt(pos++), 16);
+				if (d < 0)
+					throw unsupported();
+				value = value * 16 + d;
+			}
+			return value;
+		}
+		
+		private int number() {
+			int start = pos;
+			int value = 0;
+			while (pos < regex.length() && regex.charAt(pos) >= '0' && regex.charAt(pos) <= '9') {
+				value = value * 10 + (regex.charAt(pos++) - '0');
+				if (value > 1000)
+					throw unsupported();
+			}
+			if (pos == start)
+				throw unsupported();
+			return value;
+		}
+		
+		private boolean peek(char c) {
+			return pos < regex.length() && regex.charAt(pos) == c;
+		}
+		
+		private void expect(char c) {
+			if (!peek(c))
+				throw unsupported();
+			pos++;
+		}
+		
+		private static int[] single(int c) {
+			return new int[] { c, c };
+		}
+		
+		private static UnsupportedOperationException unsupported() {
+			return new UnsupportedOperationException();
+		}
+		
+		/** The union of sets of inclusive code point ranges, as a sorted disjoint set. */
+		private static int[] union(List<int[]> sets) {
+			List<int[]> ranges = new ArrayList<int[]>();
+			for (int[] set : sets)
+				for (int i = 0; i < set.length; i += 2)
+					ranges.add(new int[] { set[i], set[i + 1] });
+			java.util.Collections.sort(ranges, new java.util.Comparator<int[]>() {
+				public int compare(int[] a, int[] b) {
+					return a[0] < b[0] ? -1 : a[0] == b[0] ? 0 : 1;
+				}
+			});
+			int[] result = new int[ranges.size() * 2];
+			int n = 0;
+			for (int[] r : ranges) {
+				if (n > 0 && r[0] <= result[n - 1] + 1) {
+					result[n - 1] = Math.max(result[n - 1], r[1]);
+				} else {
+					result[n++] = r[0];
+					result[n++] = r[1];
+				}
+			}
+			return Arrays.copyOf(result, n);
+		}
+		
+		private static int[] complement(int[] set) {
+			int[] result = new int[set.length + 2];
+			int n = 0;
+			int next = 0;
+			for (int i = 0; i < set.length; i += 2) {
+				if (set[i] > next) {
+					result[n++] = next;
+					result[n++] = set[i] - 1;
+				}
+				next = set[i + 1] + 1;
+			}
+			if (next <= MAX_CODE_POINT) {
+				result[n++] = next;
+				result[n++] = MAX_CODE_POINT;
+			}
+			return Arrays.copyOf(result, n);
+		}
+	}
+	
+	// -----------------------------------------------------------------------
+	
+	/**
+	 * A Thompson NFA where every state has either epsilon edges or a single
+	 * edge labeled with a set of code points.
+	 */
+	private static final class Nfa {
+		
+		private final List<int[]> labels = new ArrayList<int[]>();
+		private final List<Integer> targets = new ArrayList<Integer>();
+		private final List<List<Integer>> epsilons = new ArrayList<List<Integer>>();
+		
+		int newState() {
+			labels.add(null);
+			targets.add(-1);
+			epsilons.add(new ArrayList<Integer>(2));
+			return labels.size() - 1;
+		}
+		
+		private void epsilon(int from, int to) {
+			epsilons.get(from).add(to);
+		}
+		
+		/**
+		 * Add the states of the node between <code>start</code> and <code>end</code>.
+		 * 
+		 * @return false if the automaton gets too large
+		 */
+		boolean build(Node node, int start, int end) {
+			if (labels.size() > MAX_NFA_STATES)
+				return false;
+			switch (node.type) {
+			case Node.SET:
+				labels.set(start, node.ranges);
+				targets.set(start, end);
+				return true;
+			case Node.SEQUENCE:
+				int from = start;
+				for (Node child : node.children) {
+					int to = newState();
+					epsilon(from, to);
+					int next = newState();
+					if (!build(child, to, next))
+						return false;
+					from = next;
+				}
+				epsilon(from, end);
+				return true;
+			case Node.ALTERNATION:
+				for (Node child : node.children) {
+					int s = newState();
+					int e = newState();
+					epsilon(start, s);
+					epsilon(e, end);
+					if (!build(child, s, e))
+						return false;
+				}
+				return true;
+			default:
+				Node child = node.children.get(0);
+				int current = start;
+				for (int i = 0; i < node.min; i++) {
+					int s = newState();
+					int e = newState();
+					epsilon(current, s);
+					if (!build(child, s, e))
+						return false;
+					current = e;
+				}
+				if (node.max == -1) {
+					int s = newState();
+					int e = newState();
+					epsilon(current, s);
+					epsilon(current, end);
+					epsilon(e, current);
+					return build(child, s, e);
+				}
+				for (int i = node.min; i < node.max; i++) {
+					int s = newState();
+					int e = newState();
+					epsilon(current, s);
+					epsilon(current, end);
+					if (!build(child, s, e))
+						return false;
+					current = e;
+				}
+				epsilon(current, end);
+				return true;
+			}
+		}
+		
+		/**
+		 * The subset construction over an alphabet of code point classes.
+		 */
+		Dfa toDfa(String regex, int start, int end) {
+			TreeSet<Integer> points = new TreeSet<Integer>();
+			points.add(0);
+			for (int[] ranges : labels) {
+				if (ranges == null)
+					continue;
+				for (int i = 0; i < ranges.length; i += 2) {
+					points.add(ranges[i]);
+					if (ranges[i + 1] < MAX_CODE_POINT)
+						points.add(ranges[i + 1] + 1);
+				}
+			}
+			int[] boundaries = new int[points.size()];
+			int k = 0;
+			for (Integer p : points)
+				boundaries[k++] = p;
+			int classCount = boundaries.length;
+			
+			BitSet[] classesOf = new BitSet[labels.size()];
+			for (int s = 0; s < labels.size(); s++) {
+				int[] ranges = labels.get(s);
+				if (ranges == null)
+					continue;
+				classesOf[s] = new BitSet(classCount);
+				for (int i = 0; i < ranges.length; i += 2)
+					classesOf[s].set(classOf(boundaries, ranges[i]), classOf(boundaries, ranges[i + 1]) + 1);
+			}
+			
+			List<BitSet> states = new ArrayList<BitSet>();
+			Map<BitSet, Integer> index = new HashMap<BitSet, Integer>();
+			BitSet initial = new BitSet();
+			initial.set(start);
+			closure(initial);
+			states.add(initial);
+			index.put(initial, 0);
+			
+			int[] transitions = new int[16 * classCount];
+			for (int d = 0; d < states.size(); d++) {
+				BitSet current = states.get(d);
+				if (transitions.length < (d + 1) * classCount)
+					transitions = Arrays.copyOf(transitions, transitions.length * 2);
+				for (int cls = 0; cls < classCount; cls++) {
+					BitSet next = new BitSet();
+					for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+						if (classesOf[s] != null && classesOf[s].get(cls))
+							next.set(targets.get(s));
+					}
+					if (next.isEmpty()) {
+						transitions[d * classCount + cls] = -1;
+						continue;
+					}
+					closure(next);
+					Integer target = index.get(next);
+					if (target == null) {
+						if (states.size() == MAX_DFA_STATES)
+							return null;
+						target = states.size();
+						states.add(next);
+						index.put(next, target);
+					}
+					transitions[d * classCount + cls] = target;
+				}
+			}
+			
+			boolean[] accepting = new boolean[states.size()];
+			for (int d = 0; d < states.size(); d++)
+				accepting[d] = states.get(d).get(end);
+			return new Dfa(regex, boundaries, Arrays.copyOf(transitions, states.size() * classCount), accepting);
+		}
+		
+		private void closure(BitSet set) {
+			int[] stack = new int[labels.size()];
+			int top = 0;
+			for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1))
+				stack[top++] = s;
+			while (top > 0) {
+				int s = stack[--top];
+				for (int t : epsilons.get(s)) {
+					if (!set.get(t)) {
+						set.set(t);
+						stack[top++] = t;
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.tzavellas.validation.validators;
+
+/**
+ * A {@link Validator} for numbers that can also validate <code>double</code>
+ * values without boxing them.
+ * 
+ * <p>When a property has a <code>double</code> getter and all of its validators
+ * implement this interface, the value is read and validated as a primitive.</p>
+ * 
+ * @author Spiros Tzavellas
+ */
+public interface DoubleValidator extends Validator<Number> {
+	
+	/**
+	 * Assert that the specified value is valid.
+	 * 
+	 * <p>Implementations must return the same result as {@link #isValid(Object)}
+	 * for the boxed value.</p>
+	 * 
+	 * @param value the value to validate
+	 * @return true if valid else false
+	 */
+	boolean isValid(double value);
+}
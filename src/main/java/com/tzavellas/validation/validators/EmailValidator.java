@@ -17,7 +17,6 @@
 package com.tzavellas.validation.validators;
 
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Perform email validations.
@@ -29,27 +28,23 @@ import java.util.regex.Pattern;
  * For example, an address like nobody@noplace.somedog will pass validator, even though there
  * is no TLD "somedog".</p>
  * 
+ * <p>The address is checked by a single scan over its characters that accepts
+ * the same language as the regular expressions of the original implementation
+ * (see the comments of each method), so validation runs in linear time and
+ * does not allocate. If a subclass overrides {@link #isValidUser(String)},
+ * {@link #isValidDomain(String)} or {@link #isValidSymbolicDomain(String)},
+ * the user and the domain are given to those methods, like the original
+ * implementation did.</p>
+ * 
  * <p>This class is copied and modified from the Apache Jakarta
  * <a href="http://jakarta.apache.org/commons/validator/">commons-validator</a> project.</p>
  */
 public class EmailValidator implements Validator<String> {
 
-    private static final String SPECIAL_CHARS = "[\\000-\\037]\\(\\)<>@,;:'\\\\\\\"\\.\\[\\]\\0177";
-    private static final String VALID_CHARS = "[^\\s" + SPECIAL_CHARS + "]";
-    private static final String QUOTED_USER = "(\"[^\"]*\")";
-    private static final String ATOM = VALID_CHARS + '+';
-    private static final String WORD = "((" + VALID_CHARS + "|')+|" + QUOTED_USER + ")";
-
-    private static final Pattern LEGAL_ASCII_PATTERN = Pattern.compile("^[\\0000-\\0177]+$");
-    private static final Pattern EMAIL_PATTERN = Pattern.compile("^(.+)@(.+)[^\\.]*$");
-    private static final Pattern IP_DOMAIN_PATTERN = Pattern.compile(
-            "^\\[(\\d{1,3})[.](\\d{1,3})[.](\\d{1,3})[.](\\d{1,3})\\]$");
-    
-    private static final Pattern TLD_PATTERN = Pattern.compile("^\\p{Alpha}\\p{Alnum}{1,3}");
-            
-    private static final Pattern USER_PATTERN = Pattern.compile("^\\s*" + WORD + "(\\." + WORD + ")*$");
-    private static final Pattern DOMAIN_PATTERN = Pattern.compile("^" + ATOM + "(\\." + ATOM + ")*\\s*$");
-
+    /**
+     * Whether the class of this validator overrides a component method.
+     */
+    private final boolean overridden = overridesComponentMethods(getClass());
 
     /**
      * Checks if a field has a valid e-mail address.
@@ -63,31 +58,56 @@ public class EmailValidator implements Validator<String> {
         if (email == null) {
             return false;
         }
-
-        if (!LEGAL_ASCII_PATTERN.matcher(email).matches()) {
+        int length = email.length();
+        if (length == 0) {
             return false;
         }
 
-        return isValidInternal(stripComments(email));
-    }
-    
-    
-    private boolean isValidInternal(String email) {
-    	//Check the whole email address structure
-        Matcher emailMatcher = EMAIL_PATTERN.matcher(email); 
-        if (!emailMatcher.matches()) {
-            return false;
+        // Emulates ^[\0000-\0177]+$ and ^(.+)@(.+)[^\.]*$ where '.' does not
+        // match line terminators: the user is everything before the last '@' of
+        // the first line, the domain is the rest of that line and any following
+        // lines must not contain a dot.
+        int lineEnd = length;
+        int at = -1;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c > 0177) {
+                return false;
+            }
+            if (lineEnd == length) {
+                if (c == '\n' || c == '\r') {
+                    lineEnd = i;
+                } else if (c == '@') {
+                    at = i;
+                }
+            } else if (c == '.') {
+                return false;
+            }
         }
-
-        if (!isValidUser(emailMatcher.group(1))) {
+        // An '@' right before the line end would leave the domain empty and any
+        // earlier '@' would end up inside the domain, which is never valid.
+        if (at < 1 || at > lineEnd - 2) {
             return false;
         }
-
-        if (!isValidDomain(emailMatcher.group(2))) {
-            return false;
+        if (overridden) {
+            return isValidUser(email.substring(0, at)) && isValidDomain(email.substring(at + 1, lineEnd));
         }
+        return isValidUser(email, 0, at) && isValidDomain(email, at + 1, lineEnd);
+    }
 
-        return true;
+    private static boolean overridesComponentMethods(Class<?> c) {
+        String[] methods = {"isValidUser", "isValidDomain", "isValidSymbolicDomain"};
+        for (; c != EmailValidator.class; c = c.getSuperclass()) {
+            for (String method : methods) {
+                try {
+                    c.getDeclaredMethod(method, String.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // not overridden by this class
+                }
+            }
+        }
+        return false;
     }
 
     /**
@@ -98,29 +118,13 @@ public class EmailValidator implements Validator<String> {
      * @return true if the email address's domain is valid.
      */
     protected boolean isValidDomain(String domain) {
-        boolean symbolic = false;
-        Matcher ipAddressMatcher = IP_DOMAIN_PATTERN.matcher(domain);
-
-        if (ipAddressMatcher.matches()) {
-            if (!isValidIpAddress(ipAddressMatcher)) {
-                return false;
-            } else {
-                return true;
-            }
-        } else {
-            // Domain is symbolic name
-            symbolic = DOMAIN_PATTERN.matcher(domain).matches();
-        }
-
-        if (symbolic) {
-            if (!isValidSymbolicDomain(domain)) {
-                return false;
-            }
-        } else {
+        if (domain.length() == 0) {
             return false;
         }
-
-        return true;
+        if (domain.charAt(0) == '[') {
+            return isValidIpDomain(domain, 0, domain.length());
+        }
+        return atomsEnd(domain, 0, domain.length()) != -1 && isValidSymbolicDomain(domain);
     }
 
     /**
@@ -131,7 +135,7 @@ public class EmailValidator implements Validator<String> {
      * @return true if the user name is valid.
      */
     protected boolean isValidUser(String user) {
-        return USER_PATTERN.matcher(user).matches();
+        return isValidUser(user, 0, user.length());
     }
 
     /**
@@ -140,7 +144,11 @@ public class EmailValidator implements Validator<String> {
      * @param ipAddressMatcher Pattren matcher
      * 
      * @return true if the ip address is valid.
+     * 
+     * @deprecated IP address domains are now checked while scanning the
+     * address and this method is no longer called.
      */
+    @Deprecated
     protected boolean isValidIpAddress(Matcher ipAddressMatcher) {
         for (int i = 1; i <= 4; i++) {
             String ipSegment = ipAddressMatcher.group(i);
@@ -172,57 +180,182 @@ public class EmailValidator implements Validator<String> {
      * @return true if the symbolic domain name is valid.
      */
     protected boolean isValidSymbolicDomain(String domain) {
-    	char[] chars2 = domain.toCharArray();
-        int segments = 1;
-        int topLevelStart = 0;
-        for(int i = 0; i < chars2.length; i++) {
-            if(chars2[i] == '.') {
-                segments++;
-                topLevelStart = i;
-            }
-        }
-    	//TODO validate that segments do not contain invalid characters
-    	if (segments > 1) {
-    		String topLevel = domain.substring(topLevelStart + 1).trim();
-
-    		if (!TLD_PATTERN.matcher(topLevel).matches()) {
-    			return false;
-    		}
-            
-    	} else {
-    		// Make sure there's a host name preceding the authority.
-    		return false; // for compatibility...
-    	}
+        int topLevelStart = domain.lastIndexOf('.');
+        if (topLevelStart == -1) {
+            // Make sure there's a host name preceding the authority.
+            return false; // for compatibility...
+        }
+        int start = topLevelStart + 1;
+        int end = domain.length();
+        while (start < end && domain.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && domain.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return isValidTopLevelDomain(domain, start, end);
+    }
 
-        return true;
+    /**
+     * Emulates <code>^\s*WORD(\.WORD)*$</code> where a WORD is either a run of
+     * valid characters and single quotes or a double quoted string.
+     */
+    private static boolean isValidUser(String s, int start, int end) {
+        int i = start;
+        while (i < end && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        while (true) {
+            if (i == end) {
+                return false;
+            }
+            if (s.charAt(i) == '"') {
+                i++;
+                while (i < end && s.charAt(i) != '"') {
+                    i++;
+                }
+                if (i == end) {
+                    return false;
+                }
+                i++;
+            } else {
+                int wordStart = i;
+                while (i < end && (isValidChar(s.charAt(i)) || s.charAt(i) == '\'')) {
+                    i++;
+                }
+                if (i == wordStart) {
+                    return false;
+                }
+            }
+            if (i == end) {
+                return true;
+            }
+            if (s.charAt(i) != '.') {
+                return false;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Checks either an IP address literal or a symbolic domain name made of
+     * dot separated atoms of valid characters, optionally followed by
+     * whitespace, with at least two segments and a valid top level domain.
+     */
+    private static boolean isValidDomain(String s, int start, int end) {
+        if (s.charAt(start) == '[') {
+            return isValidIpDomain(s, start, end);
+        }
+        int atomsEnd = atomsEnd(s, start, end);
+        if (atomsEnd == -1) {
+            return false;
+        }
+        int topLevelStart = s.lastIndexOf('.', atomsEnd - 1) + 1;
+        if (topLevelStart <= start) {
+            return false;
+        }
+        return isValidTopLevelDomain(s, topLevelStart, atomsEnd);
     }
-    
+
     /**
-     * For now it just returns the emaill address with the comments.
-     * 
-     * TODO: port to use java.util.regex
+     * Emulates <code>^ATOM(\.ATOM)*\s*$</code> where an ATOM is a run of valid
+     * characters.
      * 
-     * Recursively remove comments, and replace with a single space.  The simpler
-     * regexps in the Email Addressing FAQ are imperfect - they will miss escaped
-     * chars in atoms, for example.
-     * 
-     * Derived From Mail::RFC822::Address
-     * 
-     * @param emailStr The email address
-     * @return address with comments removed.
-    */
-    private String stripComments(String emailStr)  {
-//     String input = emailStr;
-     String result = emailStr;
-//     String commentPat = "s/^((?:[^\"\\\\]|\\\\.)*(?:\"(?:[^\"\\\\]|\\\\.)*\"(?:[^\"\\\\]|\111111\\\\.)*)*)\\((?:[^()\\\\]|\\\\.)*\\)/$1 /osx";
-//     Perl5Util commentMatcher = new Perl5Util();
-//     result = commentMatcher.substitute(commentPat,input);
-//     // This really needs to be =~ or Perl5Matcher comparison
-//     while (!result.equals(input)) {
-//        input = result;
-//        result = commentMatcher.substitute(commentPat,input);
-//     }
-     return result;
+     * @return the end of the last atom or -1 if the domain does not match
+     */
+    private static int atomsEnd(String s, int start, int end) {
+        int i = start;
+        int atomsEnd;
+        while (true) {
+            int atomStart = i;
+            while (i < end && isValidChar(s.charAt(i))) {
+                i++;
+            }
+            if (i == atomStart) {
+                return -1;
+            }
+            if (i < end && s.charAt(i) == '.') {
+                i++;
+            } else {
+                atomsEnd = i;
+                break;
+            }
+        }
+        while (i < end && isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i == end ? atomsEnd : -1;
+    }
+
+    /**
+     * Emulates <code>^\[(\d{1,3})[.](\d{1,3})[.](\d{1,3})[.](\d{1,3})\]$</code>
+     * with every segment being at most 255.
+     */
+    private static boolean isValidIpDomain(String s, int start, int end) {
+        int i = start + 1;
+        for (int segment = 0; segment < 4; segment++) {
+            if (segment > 0) {
+                if (i == end || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+            int value = 0;
+            int digitsStart = i;
+            while (i < end && i - digitsStart < 3 && isDigit(s.charAt(i))) {
+                value = value * 10 + (s.charAt(i++) - '0');
+            }
+            if (i == digitsStart || value > 255) {
+                return false;
+            }
+        }
+        return i == end - 1 && s.charAt(i) == ']';
+    }
+
+    /**
+     * Emulates <code>^\p{Alpha}\p{Alnum}{1,3}</code>.
+     */
+    private static boolean isValidTopLevelDomain(String s, int start, int end) {
+        int length = end - start;
+        if (length < 2 || length > 4 || !isLetter(s.charAt(start))) {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isLetter(c) && !isDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Any ASCII character except whitespace, control characters and
+     * <code>()&lt;&gt;@,;:'\".[]</code>.
+     */
+    private static boolean isValidChar(char c) {
+        if (c <= ' ' || c >= 0177) {
+            return false;
+        }
+        switch (c) {
+        case '(': case ')': case '<': case '>': case '@': case ',': case ';':
+        case ':': case '\'': case '\\': case '"': case '.': case '[': case ']':
+            return false;
+        default:
+            return true;
+        }
+    }
+
+    /** The characters of <code>\s</code>. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
 
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -16,10 +16,18 @@
  */
 package com.tzavellas.validation.validators;
 
-import java.util.regex.Pattern;
-
 /**
- * A class for validating 10 digit ISBN codes.
+ * A class for validating ISBN codes and related identifiers.
+ * 
+ * <p>By default only 10 digit ISBN codes are valid. You can specify which
+ * variants should pass validation by configuring the validation options. For
+ * example,<br>
+ * <pre>ISBNValidator v = new ISBNValidator(ISBNValidator.ISBN_10 + ISBNValidator.ISBN_13);</pre>
+ * <br>configures the validator to pass both 10 and 13 digit ISBN codes.</p>
+ * 
+ * <p>Every variant is checked in a single pass over the characters of the
+ * code that verifies the format and computes the checksum, so validation
+ * does not allocate.</p>
  * 
  * <p>Based on this 
  * <a href="http://www.isbn.org/standards/home/isbn/international/html/usm4.htm">
@@ -30,98 +38,202 @@ import java.util.regex.Pattern;
  */
 public class ISBNValidator implements Validator<String> {
 
-    private static final String SEP = "(\\-|\\s)";
-    private static final String GROUP = "(\\d{1,5})";
-    private static final String PUBLISHER = "(\\d{1,7})";
-    private static final String TITLE = "(\\d{1,6})";
-    private static final String CHECK = "([0-9X])";
+    /**
+     * Option specifying that 10 digit ISBN codes are allowed.
+     */
+    public static final int ISBN_10 = 1 << 0;
 
     /**
-     * ISBN consists of 4 groups of numbers separated by either dashes (-)
-     * or spaces.  The first group is 1-5 characters, second 1-7, third 1-6,
-     * and fourth is 1 digit or an X.
+     * Option specifying that 13 digit ISBN codes, EAN-13 codes with the
+     * 978 or 979 prefix, are allowed.
      */
-    private static final Pattern ISBN_PATTERN = Pattern.compile(
-        "^" + GROUP + SEP + PUBLISHER + SEP + TITLE + SEP + CHECK + "$");
+    public static final int ISBN_13 = 1 << 1;
 
+    /**
+     * Option specifying that any EAN-13 code is allowed.
+     */
+    public static final int EAN_13 = 1 << 2;
 
     /**
-     * If the ISBN is formatted with space or dash separators its format is
-     * validated.  Then the digits in the number are weighted, summed, and
-     * divided by 11 according to the ISBN algorithm.  If the result is zero,
-     * the ISBN is valid.  This method accepts formatted or raw ISBN codes.
+     * Option specifying that 8 digit ISSN codes are allowed.
+     */
+    public static final int ISSN = 1 << 3;
+
+    /**
+     * The maximum length of each group of a formatted 10 digit ISBN. The
+     * first group is 1-5 characters, second 1-7, third 1-6, and fourth is 1
+     * digit or an X.
+     */
+    private static final int[] ISBN_10_GROUPS = { 5, 7, 6, 1 };
+
+    /**
+     * Holds the set of current validation options.
+     */
+    private final Flags options;
+
+    /**
+     * Create a new ISBNValidator that validates 10 digit ISBN codes.
+     */
+    public ISBNValidator() {
+        this(ISBN_10);
+    }
+
+    /**
+     * Create a new ISBNValidator with the specified options.
+     * 
+     * @param options Pass in ISBNValidator.ISBN_10 + ISBNValidator.ISBN_13
+     * to specify that those are the only valid variants.
+     */
+    public ISBNValidator(int options) {
+        this.options = new Flags(options);
+    }
+
+    /**
+     * Checks if the code is valid in any of the allowed variants.
      *
-     * @param isbn Candidate ISBN number to be validated. <code>null</code> is
+     * @param isbn Candidate code to be validated. <code>null</code> is
      * considered invalid.
-     * @return true if the string is a valid ISBN code.
+     * @return true if the string is a valid code.
      */
     public boolean isValid(String isbn) {
-        if (isbn == null || isbn.length() < 10 || isbn.length() > 13) {
+        if (isbn == null) {
             return false;
         }
+        return (options.isOn(ISBN_10) && isValidIsbn10(isbn))
+            || (options.isOn(ISBN_13) && isValidEan13(isbn, true))
+            || (options.isOn(EAN_13) && isValidEan13(isbn, false))
+            || (options.isOn(ISSN) && isValidIssn(isbn));
+    }
 
-        if (isFormatted(isbn) && !isValidPattern(isbn)) {
+    /**
+     * If the ISBN is formatted with space or dash separators its format is
+     * validated.  Then the digits in the number are weighted, summed, and
+     * divided by 11 according to the ISBN algorithm.  If the result is zero,
+     * the ISBN is valid.  This method accepts formatted or raw ISBN codes.
+     */
+    private static boolean isValidIsbn10(String isbn) {
+        int length = isbn.length();
+        if (length < 10 || length > 13) {
             return false;
         }
 
-        String cleanedIsbn = clean(isbn);
-        if (cleanedIsbn.length() != 10) {
-            return false;
+        boolean formatted = false;
+        // the format of a formatted ISBN is 4 groups of numbers separated by
+        // either dashes (-) or spaces
+        boolean validFormat = true;
+        int group = 0;
+        int groupLength = 0;
+        // all non-digit characters except for 'X' are ignored in the checksum
+        int digits = 0;
+        int sum = 0;
+        for (int i = 0; i < length; i++) {
+            char c = isbn.charAt(i);
+            if (c == '-' || c == ' ') {
+                formatted = true;
+            }
+
+            if ((c >= '0' && c <= '9') || (c == 'X' && group == 3)) {
+                validFormat &= ++groupLength <= ISBN_10_GROUPS[group];
+            } else if ((c == '-' || isWhitespace(c)) && group < 3 && groupLength > 0) {
+                group++;
+                groupLength = 0;
+            } else {
+                validFormat = false;
+            }
+
+            if (Character.isDigit(c) || c == 'X') {
+                if (digits == 10) {
+                    return false;
+                }
+                int value = (c == 'X') ? 10 : Character.digit(c, 10);
+                sum += (10 - digits) * value;
+                digits++;
+            }
         }
 
-        return (sum(cleanedIsbn) % 11) == 0;
-    }
-    
-    /**
-     * Returns the sum of the weighted ISBN characters.
-     */
-    private int sum(String isbn) {
-        int total = 0;
-        for (int i = 0; i < 9; i++) {
-            int weight = 10 - i;
-            total += (weight * toInt(isbn.charAt(i)));
+        if (formatted && !(validFormat && group == 3 && groupLength == 1)) {
+            return false;
         }
-        total += toInt(isbn.charAt(9)); // add check digit
-        return total;
+        return digits == 10 && sum % 11 == 0;
     }
 
     /**
-     * Removes all non-digit characters except for 'X' which is a valid ISBN
-     * character. 
+     * Checks a 13 digit EAN code, optionally with single dash or space
+     * separators between digits, whose digits weighted alternately by 1
+     * and 3 sum to a multiple of 10.
      */
-    private String clean(String isbn) {
-        StringBuffer buf = new StringBuffer(10);
-        
-        for (int i = 0; i < isbn.length(); i++) {
-            char digit = isbn.charAt(i);
-            if (Character.isDigit(digit) || (digit == 'X')) {
-                buf.append(digit);
+    private static boolean isValidEan13(String code, boolean isbnPrefix) {
+        int length = code.length();
+        if (length < 13 || length > 17) {
+            return false;
+        }
+
+        int digits = 0;
+        int sum = 0;
+        int prefix = 0;
+        boolean separator = true;
+        for (int i = 0; i < length; i++) {
+            char c = code.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits == 13) {
+                    return false;
+                }
+                int value = c - '0';
+                sum += ((digits & 1) == 0) ? value : 3 * value;
+                if (digits < 3) {
+                    prefix = prefix * 10 + value;
+                }
+                digits++;
+                separator = false;
+            } else if ((c == '-' || c == ' ') && !separator) {
+                separator = true;
+            } else {
+                return false;
             }
         }
 
-        return buf.toString();
+        if (digits != 13 || separator) {
+            return false;
+        }
+        if (isbnPrefix && prefix != 978 && prefix != 979) {
+            return false;
+        }
+        return sum % 10 == 0;
     }
 
     /**
-     * Returns the numeric value represented by the character.  If the 
-     * character is not a digit but an 'X', 10 is returned.
+     * Checks an 8 character ISSN, optionally with a dash after the fourth
+     * digit, where the last character is a digit or an X and the characters
+     * weighted from 8 down to 1 sum to a multiple of 11.
      */
-    private int toInt(char ch) {
-        return (ch == 'X') ? 10 : Character.getNumericValue(ch);
-    }
-    
-    /**
-     * Returns true if the ISBN contains one of the separator characters space
-     * or dash.
-     */
-    private boolean isFormatted(String isbn) {
-        return ((isbn.indexOf('-') != -1) || (isbn.indexOf(' ') != -1));
+    private static boolean isValidIssn(String issn) {
+        int length = issn.length();
+        if (length != 8 && !(length == 9 && issn.charAt(4) == '-')) {
+            return false;
+        }
+
+        int sum = 0;
+        int weight = 8;
+        for (int i = 0; i < length; i++) {
+            if (length == 9 && i == 4) {
+                continue;
+            }
+            char c = issn.charAt(i);
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c == 'X' && weight == 1) {
+                value = 10;
+            } else {
+                return false;
+            }
+            sum += weight-- * value;
+        }
+        return sum % 11 == 0;
     }
 
-    /**
-     * Returns true if the ISBN is formatted properly.
-     */
-    private boolean isValidPattern(String isbn) {
-    	return ISBN_PATTERN.matcher(isbn).matches();
+    /** The characters of <code>\s</code>. */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\013' || c == '\f' || c == '\r';
     }
 }
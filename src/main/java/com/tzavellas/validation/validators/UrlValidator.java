@@ -16,12 +16,6 @@
  */
 package com.tzavellas.validation.validators;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Validates URLs.
  * 
@@ -36,6 +30,13 @@ import java.util.regex.Pattern;
  * <p>Originally based in on php script by Debbie Dyer, validation.php v1.2b, Date: 03/07/02,
  * http://javascript.internet.com. However, this validation now bears little resemblance
  * to the php original.</p>
+ * <p>The URL is checked by a single scan over its characters that accepts the
+ * same URLs as the regular expressions of the original implementation (see
+ * the comments of each method), so validation runs in linear time and does
+ * not allocate. If a subclass overrides one of the protected
+ * <code>isValid*</code> methods, the URL is split into its components and
+ * each component is given to its method, like the original implementation
+ * did.</p>
  * <pre>
  *   Example of usage:
  *   Construct a UrlValidator with valid schemes of "http", and "https".
@@ -86,80 +87,6 @@ public class UrlValidator implements Validator<String> {
      */
     public static final int NO_FRAGMENTS = 1 << 2;
 
-    private static final String ALPHA_CHARS = "a-zA-Z";
-
-    private static final String ALPHA_NUMERIC_CHARS = ALPHA_CHARS + "\\d";
-
-    private static final String SPECIAL_CHARS = ";/@&=,.?:+$";
-
-    private static final String VALID_CHARS = "[^\\s" + SPECIAL_CHARS + "]";
-
-    // Drop numeric, and  "+-." for now
-    private static final String AUTHORITY_CHARS = ALPHA_NUMERIC_CHARS + "\\-\\.";
-
-    private static final String ATOM = VALID_CHARS + '+';
-
-    /**
-     * This expression derived/taken from the BNF for URI (RFC2396).
-     */
-    private static final Pattern URL_PATTERN = Pattern.compile(
-            "^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\\?([^#]*))?(#(.*))?");
-    //Groups:  12            3  4          5       6   7        8 9
-
-    /**
-     * Schema/Protocol (ie. http:, ftp:, file:, etc).
-     */
-    private static final int PARSE_URL_SCHEME = 2;
-
-    /**
-     * Includes hostname/ip and port number.
-     */
-    private static final int PARSE_URL_AUTHORITY = 4;
-
-    private static final int PARSE_URL_PATH = 5;
-
-    private static final int PARSE_URL_QUERY = 7;
-
-    private static final int PARSE_URL_FRAGMENT = 9;
-
-    /**
-     * Protocol (ie. http:, ftp:,https:).
-     */
-    private static final Pattern SCHEME_PATTERN = Pattern.compile("^[" + ALPHA_CHARS + "][" + ALPHA_NUMERIC_CHARS + "]*") ;
-
-    private static final Pattern AUTHORITY_PATTERN = Pattern.compile(
-            "^([" + AUTHORITY_CHARS + "]*)(:\\d*)?(.*)?");
-    //         1                          2  3       4
-
-    private static final int PARSE_AUTHORITY_HOST_IP = 1;
-
-    private static final int PARSE_AUTHORITY_PORT = 2;
-
-    /**
-     * Should always be empty.
-     */
-    private static final int PARSE_AUTHORITY_EXTRA = 3;
-
-    private static final Pattern PATH_PATTERN = Pattern.compile("^(/[-\\w:@&?=+,.!/~*'%$_;]*)?$");
-
-    private static final Pattern QUERY_PATTERN = Pattern.compile("^(.*)$");
-
-    private static final Pattern LEGAL_ASCII_PATTERN = Pattern.compile("\\p{ASCII}+");
-
-    private static final Pattern IP_V4_DOMAIN_PATTERN = Pattern.compile(
-            "^(\\d{1,3})[.](\\d{1,3})[.](\\d{1,3})[.](\\d{1,3})$");
-
-    private static final Pattern DOMAIN_PATTERN =
-    		Pattern.compile("^" + ATOM + "(\\." + ATOM + ")*$");
-
-    private static final Pattern PORT_PATTERN = Pattern.compile("^:(\\d{1,5})$");
-
-    /**
-     * Ensure length  1 < tld <= 4
-     * Ensure firsr character letter and the rest alphanumeric
-     */
-    private static final Pattern TLD_PATTERN = Pattern.compile("^\\p{Alpha}\\p{Alnum}{1,3}");
-
     /**
      * Holds the set of current validation options.
      */
@@ -168,13 +95,18 @@ public class UrlValidator implements Validator<String> {
     /**
      * The set of schemes that are allowed to be in a URL.
      */
-    private Set<String> allowedSchemes = new HashSet<String>();
+    private String[] allowedSchemes = {};
 
     /**
      * If no schemes are provided, default to this set.
      */
     protected String[] defaultSchemes = {"http", "https", "ftp"};
 
+    /**
+     * Whether the class of this validator overrides a component method.
+     */
+    private final boolean overridden = overridesComponentMethods(getClass());
+
     /**
      * Create a UrlValidator with default properties.
      */
@@ -221,8 +153,7 @@ public class UrlValidator implements Validator<String> {
             return;
         }
 
-        allowedSchemes.addAll(
-        		Arrays.asList(schemes == null ? defaultSchemes : schemes));
+        allowedSchemes = (schemes == null ? defaultSchemes : schemes).clone();
     }
 
     /**
@@ -237,37 +168,56 @@ public class UrlValidator implements Validator<String> {
         if (value == null) {
             return false;
         }
-
-        if (!LEGAL_ASCII_PATTERN.matcher(value).matches()) {
-            return false;
+        if (overridden) {
+            return isValidComponents(value);
         }
+        int length = value.length();
 
-        // Check the whole url address structure
-        Matcher matchUrlPat = URL_PATTERN.matcher(value);
-        if (!matchUrlPat.matches()) {
-            return false;
+        // Emulates ^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\?([^#]*))?(#(.*))?
+        // where the scheme and the authority are required.
+        int i = 0;
+        while (i < length && isAlphaNumeric(value.charAt(i))) {
+            i++;
         }
-
-        if (!isValidScheme(matchUrlPat.group(PARSE_URL_SCHEME))) {
+        if (i == length || value.charAt(i) != ':' || !isValidScheme(value, i)) {
             return false;
         }
+        i++;
 
-        if (!isValidAuthority(matchUrlPat.group(PARSE_URL_AUTHORITY))) {
+        if (!value.startsWith("//", i)) {
             return false;
         }
-
-        if (!isValidPath(matchUrlPat.group(PARSE_URL_PATH))) {
+        i += 2;
+        int authorityStart = i;
+        while (i < length && !isAuthorityEnd(value.charAt(i))) {
+            i++;
+        }
+        if (!isValidAuthority(value, authorityStart, i)) {
             return false;
         }
 
-        if (!isValidQuery(matchUrlPat.group(PARSE_URL_QUERY))) {
+        int pathStart = i;
+        while (i < length && value.charAt(i) != '?' && value.charAt(i) != '#') {
+            i++;
+        }
+        if (!isValidPath(value, pathStart, i)) {
             return false;
         }
 
-        if (!isValidFragment(matchUrlPat.group(PARSE_URL_FRAGMENT))) {
-            return false;
+        if (i < length && value.charAt(i) == '?') {
+            int queryStart = ++i;
+            while (i < length && value.charAt(i) != '#') {
+                i++;
+            }
+            if (!isValidText(value, queryStart, i)) {
+                return false;
+            }
         }
 
+        if (i < length) {
+            // the fragment
+            return options.isOff(NO_FRAGMENTS) && isValidText(value, i + 1, length);
+        }
         return true;
     }
 
@@ -285,19 +235,12 @@ public class UrlValidator implements Validator<String> {
         if (scheme == null) {
             return false;
         }
-        
-        if (!SCHEME_PATTERN.matcher(scheme).matches()) {
-            return false;
-        }
-
-        if (options.isOff(ALLOW_ALL_SCHEMES)) {
-
-            if (!allowedSchemes.contains(scheme)) {
+        for (int i = 0; i < scheme.length(); i++) {
+            if (!isAlphaNumeric(scheme.charAt(i))) {
                 return false;
             }
         }
-
-        return true;
+        return isValidScheme(scheme, scheme.length());
     }
 
     /**
@@ -312,108 +255,306 @@ public class UrlValidator implements Validator<String> {
         if (authority == null) {
             return false;
         }
+        return isValidAuthority(authority, 0, authority.length());
+    }
 
-        Matcher authorityMatcher = AUTHORITY_PATTERN.matcher(authority);
-        if (!authorityMatcher.matches()) {
+    /**
+     * Returns true if the path is valid.  A <code>null</code> value is considered invalid.
+     * 
+     * @param path Path value to validate.
+     * 
+     * @return true if path is valid.
+     */
+    protected boolean isValidPath(String path) {
+        if (path == null) {
+            return false;
+        }
+        return isValidPath(path, 0, path.length());
+    }
+
+    /**
+     * Returns true if the query is null or it's a properly formatted query string.
+     * 
+     * @param query Query value to validate.
+     * 
+     * @return true if query is valid.
+     */
+    protected boolean isValidQuery(String query) {
+        if (query == null) {
+            return true;
+        }
+        for (int i = 0; i < query.length(); i++) {
+            if (isLineTerminator(query.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns true if the given fragment is null or fragments are allowed.
+     * 
+     * @param fragment Fragment value to validate.
+     * 
+     * @return true if fragment is valid.
+     */
+    protected boolean isValidFragment(String fragment) {
+        if (fragment == null) {
+            return true;
+        }
+
+        return options.isOff(NO_FRAGMENTS);
+    }
+
+    /**
+     * Splits the URL into its components, like
+     * <code>^(([^:/?#]+):)?(//([^/?#]*))?([^?#]*)(\?([^#]*))?(#(.*))?</code>
+     * does, and checks each component with its protected method.
+     */
+    private boolean isValidComponents(String value) {
+        int length = value.length();
+        if (length == 0) {
             return false;
         }
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) > 0177) {
+                return false;
+            }
+        }
+
+        int i = 0;
+        while (i < length && !isAuthorityEnd(value.charAt(i)) && value.charAt(i) != ':') {
+            i++;
+        }
+        String scheme = null;
+        if (i > 0 && i < length && value.charAt(i) == ':') {
+            scheme = value.substring(0, i++);
+        } else {
+            i = 0;
+        }
+
+        String authority = null;
+        if (value.startsWith("//", i)) {
+            i += 2;
+            int authorityStart = i;
+            while (i < length && !isAuthorityEnd(value.charAt(i))) {
+                i++;
+            }
+            authority = value.substring(authorityStart, i);
+        }
+
+        int pathStart = i;
+        while (i < length && value.charAt(i) != '?' && value.charAt(i) != '#') {
+            i++;
+        }
+        String path = value.substring(pathStart, i);
 
-        boolean ipV4Address = false;
-        boolean hostname = false;
-        // check if authority is IP address or hostname
-        String hostIP = authorityMatcher.group(PARSE_AUTHORITY_HOST_IP);
-        Matcher matchIPV4Pat = IP_V4_DOMAIN_PATTERN.matcher(hostIP);
-        ipV4Address = matchIPV4Pat.matches();
+        String query = null;
+        if (i < length && value.charAt(i) == '?') {
+            int queryStart = ++i;
+            while (i < length && value.charAt(i) != '#') {
+                i++;
+            }
+            query = value.substring(queryStart, i);
+        }
 
-        if (ipV4Address) {
-            // this is an IP address so check components
-            for (int i = 1; i <= 4; i++) {
-                String ipSegment = matchIPV4Pat.group(i);
-                if (ipSegment == null || ipSegment.length() <= 0) {
+        String fragment = null;
+        if (i < length) {
+            // (.*) does not match line terminators
+            for (int j = i + 1; j < length; j++) {
+                if (isLineTerminator(value.charAt(j))) {
                     return false;
                 }
+            }
+            fragment = value.substring(i + 1);
+        }
+
+        return isValidScheme(scheme)
+            && isValidAuthority(authority)
+            && isValidPath(path)
+            && isValidQuery(query)
+            && isValidFragment(fragment);
+    }
 
+    private static boolean overridesComponentMethods(Class<?> c) {
+        String[] methods = {"isValidScheme", "isValidAuthority", "isValidPath", "isValidQuery", "isValidFragment"};
+        for (; c != UrlValidator.class; c = c.getSuperclass()) {
+            for (String method : methods) {
                 try {
-                    if (Integer.parseInt(ipSegment) > 255) {
-                        return false;
-                    }
-                } catch(NumberFormatException e) {
-                    return false;
+                    c.getDeclaredMethod(method, String.class);
+                    return true;
+                } catch (NoSuchMethodException e) {
+                    // not overridden by this class
                 }
-
             }
-        } else {
-            // Domain is hostname name
-            hostname = DOMAIN_PATTERN.matcher(hostIP).matches();
-        }
-
-        //rightmost hostname will never start with a digit.
-        if (hostname) {
-        	char[] chars2 = hostIP.toCharArray();
-            int segments = 1;
-            int topLevelStart = 0;
-            for(int i = 0; i < chars2.length; i++) {
-                if(chars2[i] == '.') {
-                    segments++;
-                    topLevelStart = i;
-                }
+        }
+        return false;
+    }
+
+    /**
+     * Emulates <code>^[a-zA-Z][a-zA-Z\d]*</code> for the first
+     * <code>length</code> characters of <code>s</code>, which must already be
+     * alphanumeric, and checks them against the allowed schemes.
+     */
+    private boolean isValidScheme(String s, int length) {
+        if (length == 0 || !isLetter(s.charAt(0))) {
+            return false;
+        }
+        if (options.isOn(ALLOW_ALL_SCHEMES)) {
+            return true;
+        }
+        for (String scheme : allowedSchemes) {
+            if (scheme != null && scheme.length() == length && s.startsWith(scheme)) {
+                return true;
             }
-        	//TODO validate that segments do not contain invalid characters
-        	if (segments > 1) {
-        		String topLevel = hostIP.substring(topLevelStart + 1);
-        		
-        		if (!TLD_PATTERN.matcher(topLevel).matches()) {
-        			return false;
-        		}
-                
-        	} else {
-        		// Make sure there's a host name preceding the authority.
-        		return false; // for compatibility...
-        	}
-        }
-
-        if (!hostname && !ipV4Address) {
+        }
+        return false;
+    }
+
+    /**
+     * Emulates <code>^([a-zA-Z\d\-\.]*)(:\d*)?(.*)?</code> where the host is
+     * either an IPv4 address or a domain name, the port has at most five
+     * digits and the rest is whitespace.
+     */
+    private static boolean isValidAuthority(String s, int start, int end) {
+        int i = start;
+        while (i < end && isHostChar(s.charAt(i))) {
+            i++;
+        }
+        if (!isValidHost(s, start, i)) {
             return false;
         }
 
-        String port = authorityMatcher.group(PARSE_AUTHORITY_PORT);
-        if (port != null) {
-            if (!PORT_PATTERN.matcher(port).matches()) {
+        if (i < end && s.charAt(i) == ':') {
+            int portStart = ++i;
+            while (i < end && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == portStart || i - portStart > 5) {
                 return false;
             }
         }
 
-        String extra = authorityMatcher.group(PARSE_AUTHORITY_EXTRA);
-        if (! (extra == null || extra.trim().equals(""))) {
-        	return false;
+        // Anything else must be removed by trim()
+        for (; i < end; i++) {
+            char c = s.charAt(i);
+            if (c > ' ' || isLineTerminator(c)) {
+                return false;
+            }
         }
-
         return true;
     }
 
     /**
-     * Returns true if the path is valid.  A <code>null</code> value is considered invalid.
-     * 
-     * @param path Path value to validate.
-     * 
-     * @return true if path is valid.
+     * Checks either an IPv4 address with every segment being at most 255 or
+     * a domain name of at least two dot separated segments with a valid top
+     * level domain.
      */
-    protected boolean isValidPath(String path) {
-        if (path == null) {
+    private static boolean isValidHost(String s, int start, int end) {
+        if (isIpV4Address(s, start, end)) {
+            int value = 0;
+            for (int i = start; i < end; i++) {
+                char c = s.charAt(i);
+                if (c == '.') {
+                    value = 0;
+                } else if ((value = value * 10 + (c - '0')) > 255) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int topLevelStart = -1;
+        int segmentStart = start;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == '.') {
+                if (i == segmentStart) {
+                    return false;
+                }
+                topLevelStart = segmentStart = i + 1;
+            }
+        }
+        if (segmentStart == end || topLevelStart == -1) {
             return false;
         }
+        return isValidTopLevelDomain(s, topLevelStart, end);
+    }
+
+    /**
+     * Emulates <code>^(\d{1,3})[.](\d{1,3})[.](\d{1,3})[.](\d{1,3})$</code>.
+     */
+    private static boolean isIpV4Address(String s, int start, int end) {
+        int i = start;
+        for (int segment = 0; segment < 4; segment++) {
+            if (segment > 0) {
+                if (i == end || s.charAt(i) != '.') {
+                    return false;
+                }
+                i++;
+            }
+            int digitsStart = i;
+            while (i < end && i - digitsStart < 3 && isDigit(s.charAt(i))) {
+                i++;
+            }
+            if (i == digitsStart) {
+                return false;
+            }
+        }
+        return i == end;
+    }
 
-        if (!PATH_PATTERN.matcher(path).matches()) {
+    /**
+     * Emulates <code>^\p{Alpha}\p{Alnum}{1,3}</code>.
+     */
+    private static boolean isValidTopLevelDomain(String s, int start, int end) {
+        int length = end - start;
+        if (length < 2 || length > 4 || !isLetter(s.charAt(start))) {
             return false;
         }
+        for (int i = start + 1; i < end; i++) {
+            if (!isAlphaNumeric(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Emulates <code>^(/[-\w:@&amp;?=+,.!/~*'%$_;]*)?$</code> and rejects paths with
+     * a double slash, unless <code>ALLOW_2_SLASHES</code> is on, or with more
+     * <code>..</code> than directories.
+     */
+    private boolean isValidPath(String s, int start, int end) {
+        if (start == end) {
+            return true;
+        }
+        if (s.charAt(start) != '/') {
+            return false;
+        }
+        int slashCount = 0;
+        int slash2Count = 0;
+        int dot2Count = 0;
+        char previous = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (!isPathChar(c)) {
+                return false;
+            }
+            if (c == '/') {
+                slashCount++;
+                if (previous == '/') {
+                    slash2Count++;
+                }
+            } else if (c == '.' && previous == '.') {
+                dot2Count++;
+            }
+            previous = c;
+        }
 
-        int slash2Count = countToken("//", path);
         if (options.isOff(ALLOW_2_SLASHES) && (slash2Count > 0)) {
             return false;
         }
 
-        int slashCount = countToken("/", path);
-        int dot2Count = countToken("..", path);
         if (dot2Count > 0) {
             if ((slashCount - slash2Count - 1) <= dot2Count) {
                 return false;
@@ -424,52 +565,55 @@ public class UrlValidator implements Validator<String> {
     }
 
     /**
-     * Returns true if the query is null or it's a properly formatted query string.
-     * 
-     * @param query Query value to validate.
-     * 
-     * @return true if query is valid.
+     * Checks that the query or the fragment contains only ASCII characters
+     * and no line terminators.
      */
-    protected boolean isValidQuery(String query) {
-        if (query == null) {
-            return true;
+    private static boolean isValidText(String s, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c > 0177 || isLineTerminator(c)) {
+                return false;
+            }
         }
-        return QUERY_PATTERN.matcher(query).matches();
+        return true;
     }
 
-    /**
-     * Returns true if the given fragment is null or fragments are allowed.
-     * 
-     * @param fragment Fragment value to validate.
-     * 
-     * @return true if fragment is valid.
-     */
-    protected boolean isValidFragment(String fragment) {
-        if (fragment == null) {
+    private static boolean isAuthorityEnd(char c) {
+        return c == '/' || c == '?' || c == '#';
+    }
+
+    private static boolean isHostChar(char c) {
+        return isAlphaNumeric(c) || c == '-' || c == '.';
+    }
+
+    private static boolean isPathChar(char c) {
+        if (isAlphaNumeric(c)) {
             return true;
         }
+        switch (c) {
+        case '-': case '_': case ':': case '@': case '&': case '?': case '=': case '+':
+        case ',': case '.': case '!': case '/': case '~': case '*': case '\'': case '%':
+        case '$': case ';':
+            return true;
+        default:
+            return false;
+        }
+    }
 
-        return options.isOff(NO_FRAGMENTS);
+    /** The characters that are not matched by <code>.</code> */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
-    /**
-     * Returns the number of times the token appears in the target.
-     * 
-     * @param token Token value to be counted.
-     * @param target Target value to count tokens in.
-     * 
-     * @return the number of tokens.
-     */
-    protected int countToken(String token, String target) {
-        int tokenIndex = 0;
-        int count = 0;
-        while (tokenIndex != -1) {
-            tokenIndex = target.indexOf(token, tokenIndex);
-            if (tokenIndex > -1) {
-                tokenIndex++;
-                count++;
-            }
-        }
-        return count;
+    private static boolean isAlphaNumeric(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 }
@@ -16,11 +16,11 @@
  */
 package com.tzavellas.validation.validators.simple;
 
-import com.tzavellas.validation.validators.Validator;
+import com.tzavellas.validation.validators.DoubleValidator;
 
 public class FloatValidators {
 
-	public static final class Range implements Validator<Number> {
+	public static final class Range implements DoubleValidator {
 		private final double max;
 		private final double min;
 	
@@ -30,32 +30,51 @@ public class FloatValidators {
 		}
 	
 		public boolean isValid(Number value) {
-			double v = value.doubleValue();
-			return (min <= v) && (v <= max);
+			return isValid(value.doubleValue());
+		}
+	
+		public boolean isValid(double value) {
+			return (min <= value) && (value <= max);
 		}
 	}
 
-	public static final class Max implements Validator<Number> {
+	public static final class Max implements DoubleValidator {
 		private final double max;
 	
 		public Max(double max) {
 			this.max = max;
 		}
 	
+		public double getMax() {
+			return max;
+		}
+	
 		public boolean isValid(Number value) {
-			return value.doubleValue() <= max;
+			return isValid(value.doubleValue());
+		}
+	
+		public boolean isValid(double value) {
+			return value <= max;
 		}
 	}
 
-	public static final class Min implements Validator<Number> {
+	public static final class Min implements DoubleValidator {
 		private final double min;
 	
 		public Min(double min) {
 			this.min = min;
 		}
 	
+		public double getMin() {
+			return min;
+		}
+	
 		public boolean isValid(Number value) {
-			return value.doubleValue() >= min;
+			return isValid(value.doubleValue());
+		}
+	
+		public boolean isValid(double value) {
+			return value >= min;
 		}
 	}
 
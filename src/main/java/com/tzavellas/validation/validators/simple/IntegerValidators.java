@@ -16,11 +16,12 @@
  */
 package com.tzavellas.validation.validators.simple;
 
-import com.tzavellas.validation.validators.Validator;
+import com.tzavellas.validation.validators.IntValidator;
+import com.tzavellas.validation.validators.LongValidator;
 
 public abstract class IntegerValidators {
 
-	public static final class Range implements Validator<Number> {
+	public static final class Range implements IntValidator, LongValidator {
 		private final long max;
 		private final long min;
 	
@@ -30,32 +31,63 @@ public abstract class IntegerValidators {
 		}
 	
 		public boolean isValid(Number value) {
-			long v = value.longValue();
-			return (min <= v) && (v <= max);
+			return isValid(value.longValue());
+		}
+	
+		public boolean isValid(int value) {
+			return isValid((long) value);
+		}
+	
+		public boolean isValid(long value) {
+			return (min <= value) && (value <= max);
 		}
 	}
 
-	public static final class Max implements Validator<Number> {
+	public static final class Max implements IntValidator, LongValidator {
 		private final long max;
 	
 		public Max(long max) {
 			this.max = max;
 		}
 	
+		public long getMax() {
+			return max;
+		}
+	
 		public boolean isValid(Number value) {
-			return value.longValue() <= max;
+			return isValid(value.longValue());
+		}
+	
+		public boolean isValid(int value) {
+			return isValid((long) value);
+		}
+	
+		public boolean isValid(long value) {
+			return value <= max;
 		}
 	}
 
-	public static final class Min implements Validator<Number> {
+	public static final class Min implements IntValidator, LongValidator {
 		private final long min;
 	
 		public Min(long min) {
 			this.min = min;
 		}
 	
+		public long getMin() {
+			return min;
+		}
+	
 		public boolean isValid(Number value) {
-			return value.longValue() >= min;
+			return isValid(value.longValue());
+		}
+	
+		public boolean isValid(int value) {
+			return isValid((long) value);
+		}
+	
+		public boolean isValid(long value) {
+			return value >= min;
 		}
 	}
 
@@ -18,19 +18,123 @@ package com.tzavellas.validation.validators.simple;
 
 import java.util.regex.Pattern;
 
+import com.tzavellas.validation.validators.Dfa;
 import com.tzavellas.validation.validators.Validator;
 
 public abstract class StringValidators {
 	
+	/**
+	 * Validates that a String matches a regular expression.
+	 * 
+	 * <p>A guarded instance rejects values longer than <code>maxLength</code>
+	 * and aborts the match, treating the value as invalid, once the regex
+	 * engine has read <code>stepsPerChar</code> characters per character of
+	 * the value. This bounds the work of patterns that backtrack
+	 * catastrophically on crafted input.</p>
+	 * 
+	 * <p>An instance created with {@link #linear(String, int)} matches with a
+	 * {@link Dfa} in linear time and needs no work bound.</p>
+	 */
 	public static final class Regex implements Validator<String> {
-		private Pattern p;
+		
+		/** The default match work budget per character of a guarded instance. */
+		public static final int DEFAULT_STEPS_PER_CHAR = 1000;
+		
+		private final Pattern p;
+		private final Dfa dfa;
+		private final int maxLength;
+		private final int stepsPerChar;
 	
 		public Regex(String regex) {
-			p = Pattern.compile(regex);
+			this(regex, Integer.MAX_VALUE, 0);
+		}
+		
+		/**
+		 * @param regex        the regular expression
+		 * @param maxLength    the maximum length of a valid value
+		 * @param stepsPerChar the match work budget per character of the value,
+		 *                     zero for no budget
+		 */
+		public Regex(String regex, int maxLength, int stepsPerChar) {
+			this(Pattern.compile(regex), null, maxLength, stepsPerChar);
+		}
+		
+		private Regex(Pattern p, Dfa dfa, int maxLength, int stepsPerChar) {
+			if (maxLength < 0 || stepsPerChar < 0)
+				throw new IllegalArgumentException("The limits cannot be negative");
+			this.p = p;
+			this.dfa = dfa;
+			this.maxLength = maxLength;
+			this.stepsPerChar = stepsPerChar;
+		}
+		
+		/**
+		 * Create a validator that matches in linear time with a {@link Dfa}.
+		 * 
+		 * @param regex     the regular expression
+		 * @param maxLength the maximum length of a valid value
+		 * @return the validator or <code>null</code> if the regular expression
+		 *         is not in the subset supported by {@link Dfa}
+		 */
+		public static Regex linear(String regex, int maxLength) {
+			Dfa dfa = Dfa.compile(regex);
+			return dfa == null ? null : new Regex(null, dfa, maxLength, 0);
 		}
 	
 		public boolean isValid(String value) {
-			return p.matcher(value).matches();
+			if (value.length() > maxLength)
+				return false;
+			if (dfa != null)
+				return dfa.matches(value);
+			if (stepsPerChar == 0)
+				return p.matcher(value).matches();
+			long budget = (long) stepsPerChar * (value.length() + 1);
+			try {
+				return p.matcher(new BoundedCharSequence(value, budget)).matches();
+			} catch (WorkLimitExceededException e) {
+				return false;
+			}
+		}
+	}
+	
+	/**
+	 * A CharSequence that aborts the regex engine after a number of reads.
+	 */
+	private static final class BoundedCharSequence implements CharSequence {
+		private final String value;
+		private long budget;
+		
+		BoundedCharSequence(String value, long budget) {
+			this.value = value;
+			this.budget = budget;
+		}
+		
+		public char charAt(int index) {
+			if (--budget < 0)
+				throw WorkLimitExceededException.INSTANCE;
+			return value.charAt(index);
+		}
+		
+		public int length() {
+			return value.length();
+		}
+		
+		public CharSequence subSequence(int start, int end) {
+			return value.subSequence(start, end);
+		}
+		
+		@Override
+		public String toString() {
+			return value;
+		}
+	}
+	
+	@SuppressWarnings("serial")
+	private static final class WorkLimitExceededException extends RuntimeException {
+		static final WorkLimitExceededException INSTANCE = new WorkLimitExceededException();
+		
+		private WorkLimitExceededException() {
+			super("The match work limit was exceeded", null, false, false);
 		}
 	}
 
@@ -41,6 +145,10 @@ public abstract class StringValidators {
 			this.min = min;
 		}
 	
+		public int getMin() {
+			return min;
+		}
+	
 		public boolean isValid(String value) {
 			return value.length() >= min;
 		}
@@ -53,6 +161,10 @@ public abstract class StringValidators {
 			this.max = max;
 		}
 	
+		public int getMax() {
+			return max;
+		}
+	
 		public boolean isValid(String value) {
 			return value.length() <= max;
 		}
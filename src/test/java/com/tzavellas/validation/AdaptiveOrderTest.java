@@ -0,0 +1,53 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Unit test for AdaptiveOrder
+ * 
+ * @author Spiros Tzavellas
+ */
+public class AdaptiveOrderTest {
+	
+	@Test
+	public void initialOrderIsTheSpecifiedOrder() {
+		assertArrayEquals(new int[] {0, 1, 2}, new AdaptiveOrder(3).getOrder());
+	}
+	
+	@Test
+	public void cheapStepsThatFailRunFirst() {
+		AdaptiveOrder ordering = new AdaptiveOrder(3);
+		for (int i = 0; i < AdaptiveOrder.SAMPLES_PER_REORDER; i++) {
+			ordering.record(new long[] {1000, 500, 10}, new boolean[] {false, false, true});
+		}
+		assertArrayEquals(new int[] {2, 1, 0}, ordering.getOrder());
+	}
+	
+	@Test
+	public void theOrderFollowsTheData() {
+		AdaptiveOrder ordering = new AdaptiveOrder(2);
+		for (int i = 0; i < AdaptiveOrder.SAMPLES_PER_REORDER; i++) {
+			ordering.record(new long[] {100, 100}, new boolean[] {false, true});
+		}
+		assertArrayEquals(new int[] {1, 0}, ordering.getOrder());
+		
+		for (int i = 0; i < AdaptiveOrder.SAMPLES_PER_REORDER; i++) {
+			ordering.record(new long[] {100, 100}, new boolean[] {true, false});
+		}
+		assertArrayEquals(new int[] {0, 1}, ordering.getOrder());
+	}
+	
+	@Test
+	public void oneInSampleIntervalCallsIsSampled() {
+		AdaptiveOrder ordering = new AdaptiveOrder(1);
+		int sampled = 0;
+		for (int i = 0; i < AdaptiveOrder.SAMPLE_INTERVAL * 4; i++) {
+			if (ordering.shouldSample())
+				sampled++;
+		}
+		assertEquals(4, sampled);
+	}
+}
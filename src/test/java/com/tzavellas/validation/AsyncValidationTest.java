@@ -0,0 +1,187 @@
+package com.tzavellas.validation;
+
+import static com.tzavellas.validation.TestHelper.assertNumberOfErrors;
+import static com.tzavellas.validation.property.Validators.string;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.tzavellas.validation.BeanValidatorTest.Person;
+import com.tzavellas.validation.validators.AsyncValidator;
+
+/**
+ * Unit test for the asynchronous validation of BeanValidator
+ * 
+ * @author Spiros Tzavellas
+ */
+public class AsyncValidationTest {
+	
+	private ExecutorService executor = Executors.newFixedThreadPool(4);
+	private BeanValidator validator = BeanValidator.forClass(Person.class,
+			string("firstName").required(),
+			string("email").required().email());
+	
+	@After
+	public void shutdown() {
+		executor.shutdown();
+	}
+	
+	@Test
+	public void validObject() throws Exception {
+		validator.addAsync(async("email", new Unique("taken@example.org")));
+		assertSame(ValidationResult.VALID, validator.validateAsync(person("free@example.org"), executor).get());
+	}
+	
+	@Test
+	public void asyncErrorsFollowTheSyncErrors() throws Exception {
+		validator.addAsync(async("email", new Unique("taken@example.org")));
+		Person p = person("taken@example.org");
+		p.setFirstName(null);
+		
+		ValidationResult result = validator.validateAsync(p, executor).get();
+		assertNumberOfErrors(result, 2);
+		ValidationError[] errors = result.getErrors().toArray(new ValidationError[2]);
+		assertEquals("firstName", errors[0].getField());
+		assertEquals("validator.unique", errors[1].getErrorCode());
+	}
+	
+	@Test
+	public void asyncErrorsAreBoundedByMaxErrors() throws Exception {
+		validator.addAsync(async("email", new Unique("taken@example.org")));
+		validator.addAsync(async("email", new Unique("taken@example.org")));
+		Person p = person("taken@example.org");
+		
+		validator.setMaxErrors(2);
+		ValidationResult result = validator.validateAsync(p, executor).get();
+		assertNumberOfErrors(result, 2);
+		assertFalse(result.isTruncated());
+		
+		validator.setMaxErrors(1);
+		result = validator.validateAsync(p, executor).get();
+		assertNumberOfErrors(result, 1);
+		assertTrue(result.isTruncated());
+		
+		p.setFirstName(null);
+		result = validator.validateAsync(p, executor).get();
+		assertNumberOfErrors(result, 1);
+		assertEquals("firstName", result.getErrors().iterator().next().getField());
+		assertTrue(result.isTruncated());
+	}
+	
+	@Test
+	public void asyncValidatorsAreSkippedForPropertiesThatFailed() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		validator.addAsync(async("email", new AsyncValidator<String>() {
+			public CompletionStage<Boolean> isValid(String value) {
+				calls.incrementAndGet();
+				return CompletableFuture.completedFuture(true);
+			}
+		}));
+		
+		assertNumberOfErrors(validator.validateAsync(person("not an email"), executor).get(), 1);
+		assertNumberOfErrors(validator.validateAsync(person(null), executor).get(), 1);
+		assertEquals(0, calls.get());
+	}
+	
+	@Test
+	public void blockingValidatorsRunConcurrently() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(2);
+		AsyncValidator<String> blocking = new AsyncValidator<String>() {
+			public CompletionStage<Boolean> isValid(String value) {
+				latch.countDown();
+				try {
+					return CompletableFuture.completedFuture(latch.await(5, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					return CompletableFuture.completedFuture(false);
+				}
+			}
+		};
+		validator.addAsync(async("firstName", blocking));
+		validator.addAsync(async("email", blocking));
+		
+		assertSame(ValidationResult.VALID, validator.validateAsync(person("free@example.org"), executor).get());
+	}
+	
+	@Test
+	public void failedAsyncValidatorsFailTheResult() throws Exception {
+		validator.addAsync(async("email", new AsyncValidator<String>() {
+			public CompletionStage<Boolean> isValid(String value) {
+				throw new IllegalStateException("connection refused");
+			}
+		}));
+		try {
+			validator.validateAsync(person("free@example.org"), executor).get();
+			fail("Expected an exception");
+		} catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+		}
+	}
+	
+	@Test
+	public void nullStagesFailWithAClearError() throws Exception {
+		validator.addAsync(async("email", new AsyncValidator<String>() {
+			public CompletionStage<Boolean> isValid(String value) {
+				return null;
+			}
+		}));
+		try {
+			validator.validateAsync(person("free@example.org"), executor).get();
+			fail("Expected an exception");
+		} catch (ExecutionException e) {
+			assertEquals(IllegalStateException.class, e.getCause().getClass());
+			assertTrue(e.getCause().getMessage().contains("'email'"));
+		}
+	}
+	
+	@Test
+	public void asyncValidatorsAreFrozen() {
+		AsyncPropertyValidator<String> v = async("email", new Unique(""));
+		validator.addAsync(v);
+		assertTrue(v.isFrozen());
+		validator.freeze();
+		try {
+			validator.addAsync(async("email", new Unique("")));
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void boundValidatorsCheckTheAsyncProperty() {
+		validator.addAsync(async("doesNotExist", new Unique("")));
+	}
+	
+	
+	private static AsyncPropertyValidator<String> async(String property, AsyncValidator<String> v) {
+		return new AsyncPropertyValidator<String>(property, v,
+				new ValidationError(property, "validator.unique", "Must be unique"));
+	}
+	
+	private static Person person(String email) {
+		Person p = new Person();
+		p.setFirstName("Spiros");
+		p.setEmail(email);
+		return p;
+	}
+	
+	private static class Unique implements AsyncValidator<String> {
+		private final String taken;
+		Unique(String taken) { this.taken = taken; }
+		public CompletionStage<Boolean> isValid(String value) {
+			return CompletableFuture.completedFuture(! taken.equals(value));
+		}
+	}
+}
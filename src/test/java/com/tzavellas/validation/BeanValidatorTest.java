@@ -19,18 +19,33 @@ package com.tzavellas.validation;
 import static com.tzavellas.validation.TestHelper.assertNumberOfErrors;
 import static com.tzavellas.validation.TestHelper.assertValid;
 import static com.tzavellas.validation.property.Validators.date;
+import static com.tzavellas.validation.property.Validators.floatingPoint;
 import static com.tzavellas.validation.property.Validators.integer;
 import static com.tzavellas.validation.property.Validators.string;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import com.tzavellas.validation.property.StringValidatorBuilder;
+
 /**
  * Unit test for BeanValidator
  * 
@@ -74,6 +89,77 @@ public class BeanValidatorTest {
 	}
 	
 	
+	@Test
+	public void validateIntoSink() {
+		final List<String> rejected = new ArrayList<String>();
+		ValidationErrorSink sink = new ValidationErrorSink() {
+			public void reject(Object bean, ValidationError error, Object rejectedValue) {
+				rejected.add(error.getField() + "=" + rejectedValue);
+			}
+		};
+		Person p = new Person();
+		p.setEmail("not an email");
+		p.setAge(12);
+		assertFalse(validator.validate(p, sink));
+		assertEquals(Arrays.asList("firstName=null", "lastName=null", "email=not an email", "age=12"), rejected);
+		
+		validator = BeanValidator.forClass(Measurement.class, integer("count").min(1));
+		rejected.clear();
+		assertTrue(validator.validate(new Measurement(1, 0, 0), sink));
+		assertFalse(validator.validate(new Measurement(0, 0, 0), sink));
+		assertEquals(Arrays.asList("count=0"), rejected);
+	}
+	
+	
+	@Test
+	public void messagesAreNotSharedBetweenResults() {
+		final String[] suffix = { "v1" };
+		MessageResolver resolver = new MessageResolver() {
+			public String getMessage(ValidationError error, Locale locale) {
+				return error.getErrorCode() + "/" + locale + "/" + suffix[0];
+			}
+		};
+		ValidationResult result = validator.validate(new Person());
+		result.setMessageResolver(resolver);
+		assertEquals("validator.required/en/v1", result.getErrorMessages(Locale.ENGLISH).get("firstName"));
+		assertSame(result.getErrorMessages(Locale.ENGLISH), result.getErrorMessages(Locale.ENGLISH));
+		assertEquals("validator.required/el/v1", result.getErrorMessages(new Locale("el")).get("firstName"));
+		
+		// a reloaded message is seen by the next result
+		suffix[0] = "v2";
+		result = validator.validate(new Person());
+		result.setMessageResolver(resolver);
+		assertEquals("validator.required/en/v2", result.getErrorMessages(Locale.ENGLISH).get("firstName"));
+	}
+	
+	
+	@Test
+	public void validatorsAreFrozenWhenPublished() {
+		StringValidatorBuilder city = string("address.city").required();
+		validator.add(city);
+		assertTrue(city.isFrozen());
+		assertFalse(validator.isValid(new Person()));
+		
+		validator.freeze();
+		assertTrue(validator.isFrozen());
+		try {
+			validator.add(string("address.street").required());
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		try {
+			validator.setAdaptiveOrdering(true);
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		try {
+			validator.setMaxErrors(1);
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		assertSame(validator, validator.freeze());
+		assertFalse(validator.isValid(new Person()));
+		assertNumberOfErrors(validator.validate(new Person()), 5);
+	}
+	
+	
 	@Test
 	public void validObject() throws Exception {
 		Person p = new Person();
@@ -85,6 +171,13 @@ public class BeanValidatorTest {
 		
 		assertValid(validator.validate(p));
 		assertTrue(validator.isValid(p));
+		assertSame(ValidationResult.VALID, validator.validate(p));
+	}
+	
+	
+	@Test(expected=UnsupportedOperationException.class)
+	public void theValidResultIsImmutable() {
+		ValidationResult.VALID.addError(new ValidationError("field", "code", "message"));
 	}
 	
 	
@@ -120,8 +213,336 @@ public class BeanValidatorTest {
 	
 	
 	
+	@Test
+	public void boundValidator() {
+		validator = BeanValidator.forClass(Person.class,
+				string("firstName").required(),
+				string("address.city").required(),
+				string("firstName").maxLength(3));
+		assertEquals(Person.class, validator.getBeanClass());
+		
+		Person p = new Person();
+		assertNumberOfErrors(validator.validate(p), 2);
+		
+		p.setFirstName("Spiros");
+		p.setAddress(new Address("street", "city"));
+		assertNumberOfErrors(validator.validate(p), 1);
+		
+		p.setFirstName("Spi");
+		assertValid(validator.validate(p));
+		assertValid(validator.validate(new Person() {{ setFirstName("Sub"); setAddress(new Address("s", "c")); }}));
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void boundValidatorFailsFastOnUnknownProperties() {
+		BeanValidator.forClass(Person.class, string("address.doesNotExist").required());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void boundValidatorChecksTheAddedValidators() {
+		BeanValidator.forClass(Person.class).add(string("doesNotExist").required());
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void boundValidatorRejectsObjectsOfOtherClasses() {
+		BeanValidator.forClass(Person.class).validate(new Address());
+	}
+	
+	
+	@Test
+	public void unboundValidatorValidatesObjectsOfDifferentClasses() {
+		validator = new BeanValidator(string("city").required());
+		assertFalse(validator.isValid(new Address()));
+		assertTrue(validator.isValid(new Address("street", "city")));
+		assertTrue(validator.isValid(new OtherAddress()));
+	}
+	
+	
+	@Test
+	public void plansOfAllTheClassesAreInvalidatedOnModification() {
+		validator = new BeanValidator(string("city").required());
+		for (int i = 0; i < 3; i++) {
+			assertTrue(validator.isValid(new Address("street", "city")));
+			assertTrue(validator.isValid(new OtherAddress()));
+		}
+		validator.add(string("city").maxLength(2));
+		assertFalse(validator.isValid(new Address("street", "city")));
+		assertFalse(validator.isValid(new OtherAddress()));
+	}
+	
+	
+	@Test
+	public void adaptiveOrderingDoesNotChangeTheResults() {
+		validator.setAdaptiveOrdering(true);
+		Person valid = new Person();
+		valid.setFirstName("Spiros");
+		valid.setLastName("Tzavellas");
+		valid.setEmail("spiros@tzavellas.com");
+		valid.setAge(19);
+		Person invalid = new Person();
+		invalid.setFirstName("Spiros");
+		
+		for (int i = 0; i < AdaptiveOrder.SAMPLE_INTERVAL * 2; i++) {
+			assertTrue(validator.isValid(valid));
+			assertFalse(validator.isValid(invalid));
+		}
+		assertNumberOfErrors(validator.validate(invalid), 3);
+	}
+	
+	
+	@Test
+	public void validateAll() {
+		validator = new BeanValidator(string("city").required());
+		List<Object> beans = Arrays.<Object>asList(new Address("s", "c"), new Address(), new OtherAddress(), new Address());
+		
+		BatchValidationResult batch = validator.validateAll(beans);
+		assertFalse(batch.isValid());
+		assertEquals(4, batch.getSize());
+		assertEquals(2, batch.getInvalidCount());
+		assertArrayEquals(new int[] {1, 3}, batch.getInvalidIndices());
+		assertSame(ValidationResult.VALID, batch.getResult(0));
+		assertNumberOfErrors(batch.getResult(1), 1);
+		assertSame(ValidationResult.VALID, batch.getResult(2));
+		assertNumberOfErrors(batch.getResult(3), 1);
+		
+		assertArrayEquals(new int[] {1, 3}, validator.validateAll(beans.stream()).getInvalidIndices());
+	}
+	
+	
+	@Test
+	public void validateAllEmptyBatch() {
+		BatchValidationResult batch = validator.validateAll(Collections.emptyList());
+		assertTrue(batch.isValid());
+		assertEquals(0, batch.getSize());
+	}
+	
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void batchResultIndexOutOfBounds() {
+		validator.validateAll(Collections.singletonList(new Person())).getResult(1);
+	}
+	
+	
+	@Test
+	public void validateAllParallel() {
+		validator = BeanValidator.forClass(Address.class, string("city").required());
+		List<Address> beans = new ArrayList<Address>();
+		for (int i = 0; i < 10000; i++) {
+			beans.add(i % 7 == 0 ? new Address() : new Address("street", "city"));
+		}
+		
+		BatchValidationResult batch = validator.validateAllParallel(beans);
+		assertEquals(10000, batch.getSize());
+		assertFalse(batch.isTruncated());
+		assertArrayEquals(validator.validateAll(beans).getInvalidIndices(), batch.getInvalidIndices());
+		assertEquals(batch.getInvalidCount(), batch.getErrorCount());
+		
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			assertArrayEquals(batch.getInvalidIndices(),
+					validator.validateAllParallel(new LinkedList<Address>(beans), Integer.MAX_VALUE, executor).getInvalidIndices());
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	
+	@Test
+	public void validateAllParallelWithMaxErrors() {
+		validator = BeanValidator.forClass(Address.class, string("city").required());
+		List<Address> beans = new ArrayList<Address>();
+		for (int i = 0; i < 10000; i++) {
+			beans.add(new Address());
+		}
+		
+		BatchValidationResult batch = validator.validateAllParallel(beans, 10, ForkJoinPool.commonPool());
+		assertTrue(batch.isTruncated());
+		assertEquals(10, batch.getErrorCount());
+		int[] indices = batch.getInvalidIndices();
+		for (int i = 1; i < indices.length; i++) {
+			assertTrue("The errors must be in input order", indices[i - 1] < indices[i]);
+		}
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void validateAllParallelPropagatesExceptions() {
+		List<Object> beans = new ArrayList<Object>();
+		for (int i = 0; i < 1000; i++) {
+			beans.add(new Person());
+		}
+		beans.add(null);
+		validator.validateAllParallel(beans);
+	}
+	
+	
+	@Test
+	public void validatePrimitiveProperties() {
+		validator = BeanValidator.forClass(Measurement.class,
+				integer("count").required().range(1, 10),
+				integer("total").max(100).in(50L, 500L),
+				floatingPoint("ratio").min(0.0).max(1.0));
+		
+		assertTrue(validator.isValid(new Measurement(5, 50, 0.5)));
+		assertValid(validator.validate(new Measurement(5, 50, 0.5)));
+		assertNumberOfErrors(validator.validate(new Measurement(0, 500, 1.5)), 3);
+		assertFalse(validator.isValid(new Measurement(5, 60, 0.5)));
+	}
+	
+	
+	@Test
+	public void errorsCarryTheRejectedValues() {
+		validator = BeanValidator.forClass(Measurement.class,
+				integer("count").min(1),
+				integer("total").max(100),
+				floatingPoint("ratio").max(1.0));
+		ValidationResult result = validator.validate(new Measurement(0, 500, 1.5));
+		assertEquals(3, result.getErrorCount());
+		List<Object> rejected = new ArrayList<Object>();
+		for (ValidationError error: result.getErrors())
+			rejected.add(error.getRejectedValue());
+		assertEquals(Arrays.<Object>asList(0, 500L, 1.5), rejected);
+		assertSame(result.getErrors(), result.getErrors());
+		
+		Person p = new Person();
+		p.setEmail("not an email");
+		for (ValidationError error: new BeanValidator(string("email").email(), string("firstName").required()).validate(p).getErrors()) {
+			assertEquals(error.getField().equals("email") ? "not an email" : null, error.getRejectedValue());
+		}
+	}
+	
+	
+	@Test
+	public void errorsAreReportedInTheOrderOfTheValidators() {
+		validator = new BeanValidator(
+				string("firstName").maxLength(2),
+				string("lastName").required(),
+				string("firstName").minLength(10));
+		Person p = new Person();
+		p.setFirstName("abc");
+		List<String> fields = new ArrayList<String>();
+		for (ValidationError error: validator.validate(p).getErrors())
+			fields.add(error.getField() + ":" + error.getErrorCode());
+		assertEquals(Arrays.asList("firstName:validator.string.max.length", "lastName:validator.required",
+				"firstName:validator.string.min.length"), fields);
+		
+		validator.setFirstErrorPerField(true);
+		assertNumberOfErrors(validator.validate(p), 2);
+		final List<String> rejected = new ArrayList<String>();
+		validator.validate(p, new ValidationErrorSink() {
+			public void reject(Object bean, ValidationError error, Object rejectedValue) {
+				rejected.add(error.getField());
+			}
+		});
+		assertEquals(Arrays.asList("firstName", "lastName"), rejected);
+	}
+	
+	
+	@Test
+	public void boundedErrorCollection() {
+		validator = BeanValidator.forClass(Measurement.class,
+				integer("count").min(1),
+				integer("total").max(100),
+				integer("total").in(50L, 60L),
+				floatingPoint("ratio").max(1.0));
+		Measurement m = new Measurement(0, 500, 1.5);
+		ValidationResult result = validator.validate(m);
+		assertNumberOfErrors(result, 4);
+		assertFalse(result.isTruncated());
+		ValidationError first = null;
+		for (ValidationError error: result.getErrors())
+			if (first == null && error.getField().equals("total"))
+				first = error;
+		assertEquals(first.getDefaultMessage(), result.getErrorMessages(null).get("total"));
+	
+		validator.setFirstErrorPerField(true);
+		result = validator.validate(m);
+		assertNumberOfErrors(result, 3);
+		assertFalse(result.isTruncated());
+	
+		validator.setFirstErrorPerField(false);
+		validator.setMaxErrors(2);
+		result = validator.validate(m);
+		assertNumberOfErrors(result, 2);
+		assertTrue(result.isTruncated());
+		assertEquals(2, countRejections(validator, m));
+		assertValid(validator.validate(new Measurement(1, 50, 0.5)));
+	}
+	
+	
+	@Test
+	public void resultsWithExactlyMaxErrorsAreNotTruncated() {
+		validator = BeanValidator.forClass(Measurement.class,
+				integer("count").min(1),
+				integer("total").max(100),
+				integer("total").in(50L, 60L),
+				floatingPoint("ratio").max(1.0));
+		validator.setMaxErrors(4);
+		ValidationResult result = validator.validate(new Measurement(0, 500, 1.5));
+		assertNumberOfErrors(result, 4);
+		assertFalse("nothing was skipped at the last step", result.isTruncated());
+		
+		validator.setMaxErrors(3);
+		result = validator.validate(new Measurement(0, 500, 0.5));
+		assertNumberOfErrors(result, 3);
+		assertTrue("ratio was not validated", result.isTruncated());
+		
+		validator.setMaxErrors(2);
+		result = validator.validate(new Measurement(0, 500, 0.5));
+		assertNumberOfErrors(result, 2);
+		assertTrue("the last validator of total was skipped", result.isTruncated());
+		
+		validator.setMaxErrors(1);
+		result = validator.validate(new Measurement(1, 500, 0.5));
+		assertNumberOfErrors(result, 1);
+		assertTrue(result.isTruncated());
+	}
+	
+
+	@Test(expected=IllegalArgumentException.class)
+	public void maxErrorsMustBePositive() {
+		validator.setMaxErrors(0);
+	}
+	
+
+	private static int countRejections(BeanValidator validator, Object bean) {
+		final int[] count = new int[1];
+		validator.validate(bean, new ValidationErrorSink() {
+			@Override
+			public void reject(Object bean, ValidationError error, Object rejectedValue) {
+				count[0]++;
+			}
+		});
+		return count[0];
+	}
+	
+
 	// --------------------------------------------- Classes used for testing 
 	
+	public static class Measurement {
+		private final int count;
+		private final long total;
+		private final double ratio;
+		
+		public Measurement(int count, long total, double ratio) {
+			this.count = count;
+			this.total = total;
+			this.ratio = ratio;
+		}
+		public int getCount() { return count; }
+		public long getTotal() { return total; }
+		public double getRatio() { return ratio; }
+	}
+	
+	
+	public static class OtherAddress {
+		public String getCity() { return "city"; }
+	}
+
+	
 	public static class Person {
 		
 		private String firstName, lastName, email;
@@ -0,0 +1,251 @@
+package com.tzavellas.validation;
+
+import static com.tzavellas.validation.TestHelper.assertNumberOfErrors;
+import static com.tzavellas.validation.TestHelper.assertValid;
+import static com.tzavellas.validation.property.Validators.each;
+import static com.tzavellas.validation.property.Validators.eachValue;
+import static com.tzavellas.validation.property.Validators.integer;
+import static com.tzavellas.validation.property.Validators.property;
+import static com.tzavellas.validation.property.Validators.string;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class ElementsValidatorTest {
+	
+	private final BeanValidator validator = BeanValidator.forClass(Order.class,
+			string("id").required(),
+			each("items",
+					string("sku").required(),
+					integer("quantity").min(1)));
+	
+	
+	@Test
+	public void errorsHaveIndexQualifiedFields() {
+		Order order = new Order(new Item("a", 1), new Item(null, 1), new Item("c", 0), new Item(null, 0));
+		ValidationResult result = validator.validate(order);
+		assertEquals(Arrays.asList("items[1].sku", "items[2].quantity", "items[3].sku", "items[3].quantity"), fields(result));
+		assertEquals(0, result.getErrors().toArray(new ValidationError[0])[1].getRejectedValue());
+		assertFalse(validator.isValid(order));
+	
+		assertValid(validator.validate(new Order(new Item("a", 1), new Item("b", 2))));
+		assertTrue(validator.isValid(new Order(new Item("a", 1), new Item("b", 2))));
+	}
+	
+	
+	@Test
+	public void iteratesListsArraysAndIterables() {
+		Object[] collections = {
+				new LinkedList<Item>(Arrays.asList(new Item("a", 1), new Item(null, 1))),
+				new Item[] { new Item("a", 1), new Item(null, 1) },
+				new LinkedHashSet<Item>(Arrays.asList(new Item("a", 1), new Item(null, 1)))
+		};
+		ElementsValidator v = each("items", string("sku").required());
+		for (Object collection: collections) {
+			assertFalse(v.isValid(collection));
+			assertEquals("items[1].sku", v.validate(collection).getField());
+		}
+	}
+	
+	
+	@Test
+	public void nullsAreNotValidated() {
+		assertValid(validator.validate(new Order(new Item("a", 1), null)));
+		Order order = new Order();
+		order.setItems(null);
+		assertValid(validator.validate(order));
+	
+		BeanValidator required = BeanValidator.forClass(Order.class, property("items").required(), each("items"));
+		assertNumberOfErrors(required.validate(order), 1);
+	}
+	
+	
+	@Test
+	public void mapValues() {
+		Order order = new Order();
+		order.getPrices().put("EUR", new Item("eur", 10));
+		order.getPrices().put("USD", new Item("usd", -1));
+		BeanValidator v = BeanValidator.forClass(Order.class, eachValue("prices", integer("quantity").min(0)));
+		assertEquals(Arrays.asList("prices[USD].quantity"), fields(v.validate(order)));
+	}
+	
+	
+	@Test
+	public void nestedElements() {
+		Customer customer = new Customer(new Order(new Item("a", 1)), new Order(new Item("b", 1), new Item("c", 0)));
+		BeanValidator v = new BeanValidator(each("orders", each("items", integer("quantity").min(1))));
+		assertEquals(Arrays.asList("orders[1].items[1].quantity"), fields(v.validate(customer)));
+	}
+	
+	
+	@Test
+	public void elementClassesOfTheSameList() {
+		Order order = new Order(new Item(null, 1), new SpecialItem(null, 1), new Item(null, 1));
+		assertEquals(Arrays.asList("items[0].sku", "items[1].sku", "items[2].sku"), fields(validator.validate(order)));
+	}
+	
+	
+	@Test
+	public void limitsApplyToTheElements() {
+		List<Item> items = new ArrayList<Item>();
+		for (int i = 0; i < 500; i++)
+			items.add(new Item(null, 0));
+		Order order = new Order();
+		order.setItems(items);
+	
+		assertNumberOfErrors(validator.validate(order), 1000);
+		validator.setMaxErrors(1000);
+		assertFalse(validator.validate(order).isTruncated());
+		validator.setMaxErrors(999);
+		assertTrue(validator.validate(order).isTruncated());
+	
+		validator.setMaxErrors(10);
+		ValidationResult result = validator.validate(order);
+		assertNumberOfErrors(result, 10);
+		assertTrue(result.isTruncated());
+		assertEquals("items[4].quantity", fields(result).get(9));
+	
+		final List<String> rejected = new ArrayList<String>();
+		validator.validate(order, new ValidationErrorSink() {
+			public void reject(Object bean, ValidationError error, Object rejectedValue) {
+				rejected.add(error.getField() + "=" + rejectedValue);
+			}
+		});
+		assertEquals(10, rejected.size());
+		assertEquals("items[0].sku=null", rejected.get(0));
+		assertEquals("items[4].quantity=0", rejected.get(9));
+	}
+	
+	
+	@Test
+	public void freezesTheElementValidators() {
+		ElementsValidator v = each("items", string("sku").required()).freeze();
+		assertTrue(v.isFrozen());
+		assertNull(v.validate(Arrays.asList(new Item("a", 1))));
+	}
+	
+	
+	@Test
+	public void customErrorCodeAndMessageOfTheElements() {
+		PropertyValidator<String> sku = string("sku").required();
+		ElementsValidator items = each("items", sku, integer("quantity").min(1));
+		items.setErrorCode("item.invalid");
+		items.setDefaultErrorMessage("Invalid item");
+		Order order = new Order(new Item("a", 1), new Item(null, 0));
+		
+		ValidationError error = items.validate(order.getItems());
+		assertEquals("items[1].sku", error.getField());
+		assertEquals("item.invalid", error.getErrorCode());
+		assertEquals("Invalid item", error.getDefaultMessage());
+		assertEquals("the element validators are not modified", "validator.required", sku.validate(null).getErrorCode());
+		
+		BeanValidator v = new BeanValidator(items);
+		final List<String> rejected = new ArrayList<String>();
+		v.validate(order, new ValidationErrorSink() {
+			public void reject(Object bean, ValidationError error, Object rejectedValue) {
+				rejected.add(error.getField() + ":" + error.getErrorCode() + ":" + error.getDefaultMessage());
+			}
+		});
+		assertEquals(Arrays.asList("items[1].sku:item.invalid:Invalid item", "items[1].quantity:item.invalid:Invalid item"), rejected);
+		
+		try {
+			items.setErrorCode("other");
+			fail("the validators of a BeanValidator are frozen");
+		} catch (IllegalStateException expected) { }
+	}
+	
+	
+	@Test
+	public void elementPathsAreCheckedAgainstTheDeclaredElementType() {
+		assertInvalidPath(Order.class, each("items", string("skuu").required()));
+		assertInvalidPath(Order.class, eachValue("prices", integer("quantiti").min(0)));
+		assertInvalidPath(Customer.class, each("orders", string("idd").required()));
+		assertInvalidPath(Customer.class, each("orders", each("items", integer("quantiti").min(1))));
+		
+		// the element type of an unbound validator is not known
+		new BeanValidator(each("items", string("skuu").required()));
+	}
+	
+	
+	private static void assertInvalidPath(Class<?> beanClass, ElementsValidator validator) {
+		try {
+			BeanValidator.forClass(beanClass, validator);
+			fail("the property of the elements does not exist");
+		} catch (IllegalArgumentException expected) { }
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void rejectsPropertiesThatAreNotCollections() {
+		each("id", string("sku").required()).validate("not a collection");
+	}
+	
+	
+	private static List<String> fields(ValidationResult result) {
+		List<String> fields = new ArrayList<String>();
+		for (ValidationError error: result.getErrors())
+			fields.add(error.getField());
+		return fields;
+	}
+	
+	
+	// --------------------------------------------- Classes used for testing
+	
+	public static class Item {
+		private final String sku;
+		private final int quantity;
+	
+		public Item(String sku, int quantity) {
+			this.sku = sku;
+			this.quantity = quantity;
+		}
+		public String getSku() { return sku; }
+		public int getQuantity() { return quantity; }
+	}
+	
+	
+	public static class SpecialItem extends Item {
+		public SpecialItem(String sku, int quantity) {
+			super(sku, quantity);
+		}
+	}
+	
+	
+	public static class Order {
+		private String id = "order";
+		private List<Item> items;
+		private final Map<String, Item> prices = new LinkedHashMap<String, Item>();
+	
+		public Order(Item... items) {
+			this.items = Arrays.asList(items);
+		}
+		public String getId() { return id; }
+		public List<Item> getItems() { return items; }
+		public void setItems(List<Item> items) {
+			this.items = items;
+		}
+		public Map<String, Item> getPrices() { return prices; }
+	}
+	
+	
+	public static class Customer {
+		private final Order[] orders;
+	
+		public Customer(Order... orders) {
+			this.orders = orders;
+		}
+		public Order[] getOrders() { return orders; }
+	}
+}
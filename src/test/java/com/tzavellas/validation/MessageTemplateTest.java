@@ -0,0 +1,53 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+import org.junit.Test;
+
+public class MessageTemplateTest {
+	
+	private static final Object[][] ARGUMENTS = {
+		null, {}, {"a"}, {"a", null, 3}, {1234567, "b", new Date(0)}, {'c', true, 2.5}
+	};
+	
+	@Test
+	public void formatsLikeMessageFormat() {
+		String[] patterns = {
+			"", "plain text", "{0}", "{0} and {1}", "{2}{0}", "It''s {0}", "'{0}' is quoted", "a '' b",
+			"'unterminated {0}", "{0,number,#.#}", "{0,choice,0#none|1#one}", "{00}", "} {0}", "{1} of {0}"
+		};
+		for (String pattern: patterns) {
+			MessageTemplate template = MessageTemplate.compile(pattern, Locale.GERMANY);
+			for (Object[] args: ARGUMENTS) {
+				assertEquals(pattern, format(new MessageFormat(pattern, Locale.GERMANY), args), format(template, args));
+			}
+		}
+	}
+	
+	private static String format(Object format, Object[] args) {
+		try {
+			if (format instanceof MessageFormat)
+				return ((MessageFormat) format).format(args);
+			return ((MessageTemplate) format).format(args);
+		} catch (IllegalArgumentException e) {
+			return e.getClass().getName();
+		}
+	}
+	
+	@Test
+	public void invalidPatternsAreRenderedAsIs() {
+		assertEquals("{0", MessageTemplate.compile("{0", null).format("a"));
+		assertEquals("a{2,3}", MessageTemplate.compile("a{2,3}", null).format("a"));
+	}
+	
+	@Test
+	public void formatToAppends() {
+		StringBuilder sb = new StringBuilder("> ");
+		MessageTemplate.compile("{0} must be less than {1}", Locale.US).formatTo(sb, "size", 1000);
+		assertEquals("> size must be less than 1,000", sb.toString());
+	}
+}
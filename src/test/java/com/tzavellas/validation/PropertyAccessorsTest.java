@@ -0,0 +1,145 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.tzavellas.validation.BeanValidatorTest.Person;
+
+/**
+ * Unit test for PropertyAccessors
+ * 
+ * @author Spiros Tzavellas
+ */
+public class PropertyAccessorsTest {
+	
+	private Person p = new Person();
+	
+	@After
+	public void restoreDefaultFactory() {
+		PropertyAccessors.setDefaultFactory(PropertyAccessors.GENERATED);
+	}
+	
+	@Test
+	public void reflectiveAccessor() throws Exception {
+		assertReadsProperties(PropertyAccessors.REFLECTION);
+	}
+	
+	@Test
+	public void generatedAccessor() throws Exception {
+		assertReadsProperties(PropertyAccessors.GENERATED);
+		Method m = Person.class.getMethod("getFirstName");
+		PropertyAccessor accessor = PropertyAccessors.GENERATED.createAccessor(m);
+		assertNotSame("Expected a generated accessor but got: " + accessor.getClass(),
+				PropertyAccessors.REFLECTION.createAccessor(m).getClass(), accessor.getClass());
+	}
+	
+	@Test
+	public void generatedPrimitiveAccessors() throws Exception {
+		Primitive bean = new Primitive();
+		PropertyAccessor accessor = PropertyAccessors.GENERATED.createAccessor(Primitive.class.getMethod("getCount"));
+		assertEquals(7, ((IntPropertyAccessor) accessor).readInt(bean));
+		assertEquals(7, accessor.read(bean));
+		
+		accessor = PropertyAccessors.GENERATED.createAccessor(Primitive.class.getMethod("getNumber"));
+		assertEquals(42L, ((LongPropertyAccessor) accessor).readLong(bean));
+		assertEquals(42L, accessor.read(bean));
+		
+		accessor = PropertyAccessors.GENERATED.createAccessor(Primitive.class.getMethod("getRatio"));
+		assertEquals(0.5, ((DoublePropertyAccessor) accessor).readDouble(bean), 0);
+		assertEquals(0.5, accessor.read(bean));
+	}
+	
+	@Test
+	public void generatedAccessorFallsBackToReflectionForNonPublicClasses() throws Exception {
+		Method m = Hidden.class.getDeclaredMethod("getValue");
+		m.setAccessible(true);
+		assertEquals("hidden", PropertyAccessors.GENERATED.createAccessor(m).read(new Hidden()));
+	}
+	
+	@Test
+	public void exceptionsFromTheReflectiveAccessorAreWrapped() throws Exception {
+		Method m = Failing.class.getMethod("getValue");
+		try {
+			PropertyAccessors.REFLECTION.createAccessor(m).read(new Failing());
+			fail("Expected an exception");
+		} catch (RuntimeException e) {
+			assertEquals(UnsupportedOperationException.class, e.getCause().getClass());
+		}
+	}
+	
+	@Test
+	public void exceptionsFromTheGeneratedAccessorAreWrapped() throws Exception {
+		for (String getter: new String[] { "getValue", "getCount", "getChecked" }) {
+			Method m = Failing.class.getMethod(getter);
+			PropertyAccessor accessor = PropertyAccessors.GENERATED.createAccessor(m);
+			assertNotSame(PropertyAccessors.REFLECTION.createAccessor(m).getClass(), accessor.getClass());
+			for (PropertyAccessorFactory factory: new PropertyAccessorFactory[] { PropertyAccessors.GENERATED, PropertyAccessors.REFLECTION }) {
+				try {
+					factory.createAccessor(m).read(new Failing());
+					fail("Expected an exception");
+				} catch (RuntimeException e) {
+					assertEquals(factory + " " + getter, "Exception while invoking method '" + m + "'", e.getMessage());
+					assertTrue(e.getCause() instanceof UnsupportedOperationException || e.getCause() instanceof IOException);
+				}
+			}
+		}
+		try {
+			((IntPropertyAccessor) PropertyAccessors.GENERATED.createAccessor(Failing.class.getMethod("getCount"))).readInt(new Failing());
+			fail("Expected an exception");
+		} catch (RuntimeException e) {
+			assertEquals(UnsupportedOperationException.class, e.getCause().getClass());
+		}
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void defaultFactoryCannotBeNull() {
+		PropertyAccessors.setDefaultFactory(null);
+	}
+	
+	@Test
+	public void defaultFactoryCanBeReplaced() {
+		PropertyAccessors.setDefaultFactory(PropertyAccessors.REFLECTION);
+		assertSame(PropertyAccessors.REFLECTION, PropertyAccessors.getDefaultFactory());
+	}
+	
+	
+	private void assertReadsProperties(PropertyAccessorFactory factory) throws Exception {
+		p.setFirstName("Spiros");
+		p.setAge(27);
+		assertEquals("Spiros", factory.createAccessor(Person.class.getMethod("getFirstName")).read(p));
+		assertEquals(27, factory.createAccessor(Person.class.getMethod("getAge")).read(p));
+		assertNull(factory.createAccessor(Person.class.getMethod("getLastName")).read(p));
+		assertEquals(Boolean.TRUE, factory.createAccessor(Primitive.class.getMethod("isFlag")).read(new Primitive()));
+		assertEquals(42L, factory.createAccessor(Primitive.class.getMethod("getNumber")).read(new Primitive()));
+	}
+	
+	
+	// --------------------------------------------- Classes used for testing
+	
+	public static class Primitive {
+		public boolean isFlag() { return true; }
+		public long getNumber() { return 42; }
+		public int getCount() { return 7; }
+		public double getRatio() { return 0.5; }
+	}
+	
+	public static class Failing {
+		public String getValue() { throw new UnsupportedOperationException(); }
+		public int getCount() { throw new UnsupportedOperationException(); }
+		public String getChecked() throws IOException { throw new IOException(); }
+	}
+	
+	private static class Hidden {
+		String getValue() { return "hidden"; }
+	}
+}
@@ -0,0 +1,78 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.tzavellas.validation.BeanValidatorTest.Address;
+import com.tzavellas.validation.BeanValidatorTest.Person;
+
+/**
+ * Unit test for PropertyPath
+ * 
+ * @author Spiros Tzavellas
+ */
+public class PropertyPathTest {
+	
+	private Person p = new Person();
+	
+	@Test
+	public void simpleProperty() {
+		p.setFirstName("Spiros");
+		PropertyPath path = new PropertyPath("firstName");
+		assertEquals("Spiros", path.read(p));
+		assertEquals("Spiros", path.read(p)); // compiled chain
+	}
+	
+	@Test
+	public void nestedPropertyIsCompiledAgainstTheDeclaredTypes() {
+		p.setAddress(new Address("MyStreet", "MyCity"));
+		PropertyPath path = new PropertyPath("address.city");
+		
+		PropertyPath.Chain chain = path.compile(Person.class);
+		assertNotNull(chain.accessors[0]);
+		assertNotNull(chain.accessors[1]);
+		
+		assertEquals("MyCity", path.read(p));
+		assertEquals("c", path.read(new Customer(new Address("s", "c"))));
+	}
+	
+	@Test
+	public void propertiesOfUntypedValuesAreResolvedAtRuntime() {
+		PropertyPath path = new PropertyPath("value.city");
+		
+		PropertyPath.Chain chain = path.compile(Holder.class);
+		assertNotNull(chain.accessors[0]);
+		assertNull(chain.accessors[1]);
+		
+		assertEquals("MyCity", path.read(new Holder(new Address("MyStreet", "MyCity"))));
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void errorIfPropertyDoesNotExist() {
+		new PropertyPath("address.doesNotExist").read(p);
+	}
+	
+	@Test(expected=IllegalStateException.class)
+	public void errorWhenAnIntermediatePropertyIsNull() {
+		p.setAddress(null);
+		new PropertyPath("address.city").read(p);
+	}
+	
+	
+	// --------------------------------------------- Classes used for testing
+	
+	public static class Customer extends Person {
+		public Customer(Address address) {
+			setAddress(address);
+		}
+	}
+	
+	public static class Holder {
+		private final Object value;
+		public Holder(Object value) { this.value = value; }
+		public Object getValue() { return value; }
+	}
+}
@@ -0,0 +1,16 @@
+package com.tzavellas.validation;
+
+import java.util.ListResourceBundle;
+
+/**
+ * The base bundle used by ResourceBundleMessageResolverTest.
+ */
+public class ResolverMessages extends ListResourceBundle {
+	@Override
+	protected Object[][] getContents() {
+		return new Object[][] {
+			{ "validator.required", "{0} is required" },
+			{ "validator.string.max.length", "At most {0} characters" }
+		};
+	}
+}
@@ -0,0 +1,15 @@
+package com.tzavellas.validation;
+
+import java.util.ListResourceBundle;
+
+/**
+ * The Greek bundle used by ResourceBundleMessageResolverTest.
+ */
+public class ResolverMessages_el extends ListResourceBundle {
+	@Override
+	protected Object[][] getContents() {
+		return new Object[][] {
+			{ "validator.required", "Το {0} είναι υποχρεωτικό" }
+		};
+	}
+}
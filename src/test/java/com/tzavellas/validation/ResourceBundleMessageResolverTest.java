@@ -0,0 +1,49 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.MissingResourceException;
+
+import org.junit.Test;
+
+public class ResourceBundleMessageResolverTest {
+	
+	private static final Locale GREEK = new Locale("el");
+	
+	private final ResourceBundleMessageResolver resolver =
+		new ResourceBundleMessageResolver("com.tzavellas.validation.ResolverMessages", Locale.ENGLISH, GREEK);
+	
+	private final ValidationError required = new ValidationError("name", "validator.required", "required", "name");
+	private final ValidationError maxLength = new ValidationError("name", "validator.string.max.length", "too long", 20);
+	private final ValidationError unknown = new ValidationError("name", "unknown", "the default");
+	
+	@Test
+	public void resolvesTheMessagesOfTheLoadedLocales() {
+		assertEquals("name is required", resolver.getMessage(required, Locale.ENGLISH));
+		assertEquals("Το name είναι υποχρεωτικό", resolver.getMessage(required, GREEK));
+		assertEquals(Arrays.asList(Locale.ENGLISH, GREEK), new ArrayList<Locale>(resolver.getLocales()));
+	}
+	
+	@Test
+	public void missingMessagesFallBack() {
+		assertEquals("The Greek bundle inherits from the base bundle",
+				"At most 20 characters", resolver.getMessage(maxLength, GREEK));
+		assertEquals("the default", resolver.getMessage(unknown, GREEK));
+	}
+	
+	@Test
+	public void otherLocalesUseTheClosestLoadedLocale() {
+		assertEquals("Το name είναι υποχρεωτικό", resolver.getMessage(required, new Locale("el", "GR")));
+		assertEquals("Το name είναι υποχρεωτικό", resolver.getMessage(required, new Locale("el", "CY", "x")));
+		assertEquals("name is required", resolver.getMessage(required, Locale.FRENCH));
+		assertEquals("name is required", resolver.getMessage(required, null));
+	}
+	
+	@Test(expected=MissingResourceException.class)
+	public void missingBundlesFailAtConstruction() {
+		new ResourceBundleMessageResolver("com.tzavellas.validation.NoSuchMessages", Locale.ENGLISH);
+	}
+}
@@ -0,0 +1,43 @@
+package com.tzavellas.validation;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TemplateMessageResolverTest {
+	
+	private final Map<String, String> patterns = new HashMap<String, String>();
+	private int lookups;
+	
+	private final TemplateMessageResolver resolver = new TemplateMessageResolver() {
+		@Override
+		protected String getPattern(String errorCode, Locale locale) {
+			lookups++;
+			return patterns.get(errorCode + "_" + locale);
+		}
+	};
+	
+	@Test
+	public void templatesAreCachedPerCodeAndLocale() {
+		patterns.put("too.long_en", "{0} is longer than {1} characters");
+		patterns.put("too.long_el", "{0}: περισσότεροι από {1} χαρακτήρες");
+		ValidationError error = new ValidationError("name", "too.long", "default", "name", 20);
+		
+		assertEquals("name is longer than 20 characters", resolver.getMessage(error, new Locale("en")));
+		assertEquals("name is longer than 20 characters", resolver.getMessage(error, new Locale("en")));
+		assertEquals("name: περισσότεροι από 20 χαρακτήρες", resolver.getMessage(error, new Locale("el")));
+		assertEquals(2, lookups);
+	}
+	
+	@Test
+	public void missingPatternsResolveToTheDefaultMessage() {
+		ValidationError error = new ValidationError("name", "unknown", "It''s {0}", "x");
+		assertEquals("It''s {0}", resolver.getMessage(error, Locale.US));
+		assertEquals("It''s {0}", resolver.getMessage(error, Locale.US));
+		assertEquals(1, lookups);
+	}
+}
@@ -19,6 +19,8 @@ package com.tzavellas.validation.property;
 import static com.tzavellas.validation.TestHelper.assertInvalid;
 import static com.tzavellas.validation.TestHelper.assertValid;
 import static com.tzavellas.validation.property.Validators.floatingPoint;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
 
@@ -45,4 +47,11 @@ public class FloatValidatorBuilderTest extends LinkedValidatorBuilderTest {
 		assertValid(validator().range(10, 100), 50);
 		assertInvalid(validator().range(10, 100), 500);
 	}
+	
+	@Test
+	public void primitiveValues() {
+		FloatValidatorBuilder v = validator().required().range(10, 100);
+		assertNull(v.validateDouble(50.5));
+		assertEquals("validator.float.range", v.validateDouble(500.5).getErrorCode());
+	}
 }
@@ -19,6 +19,9 @@ package com.tzavellas.validation.property;
 import static com.tzavellas.validation.TestHelper.assertInvalid;
 import static com.tzavellas.validation.TestHelper.assertValid;
 import static com.tzavellas.validation.property.Validators.integer;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
 
@@ -45,4 +48,40 @@ public class IntegerValidatorBuilderTest extends LinkedValidatorBuilderTest {
 		assertValid(validator().range(10, 100), 50);
 		assertInvalid(validator().range(10, 100), 500);
 	}
+	
+	@Test
+	public void minMaxAreFused() {
+		IntegerValidatorBuilder v = validator().min(10).max(100).compile();
+		assertNull(v.validate(10));
+		assertNull(v.validateLong(100L));
+		assertEquals("validator.integer.min", v.validate(9).getErrorCode());
+		assertEquals("validator.integer.max", v.validateInt(101).getErrorCode());
+		assertEquals("validator.integer.max", validator().max(10).min(100).validate(50).getErrorCode());
+	}
+	
+	@Test
+	public void primitiveValues() {
+		IntegerValidatorBuilder v = validator().required().min(10).max(100);
+		assertNull(v.validateInt(50));
+		assertNull(v.validateLong(50L));
+		assertEquals("validator.integer.min", v.validateInt(5).getErrorCode());
+		assertEquals("validator.integer.max", v.validateLong(500L).getErrorCode());
+		
+		// validators without a primitive specialization get the boxed value
+		v = validator().in(1, 2);
+		assertNull(v.validateInt(1));
+		assertNotNull(v.validateInt(3));
+	}
+	
+	@Test
+	public void primitiveValuesWithCustomRequiredCheck() {
+		IntegerValidatorBuilder v = new IntegerValidatorBuilder("") {
+			@Override
+			protected boolean extraRequiredCheck(Number value) {
+				return value.intValue() != 0;
+			}
+		}.required();
+		assertEquals("validator.required", v.validateInt(0).getErrorCode());
+		assertNull(v.validateInt(1));
+	}
 }
@@ -59,6 +59,28 @@ public class LinkedValidatorBuilderTest {
 	}
 	
 	
+	@Test
+	@SuppressWarnings("unchecked")
+	public void frozenValidatorCannotBeModified() {
+		LinkedValidatorBuilder<?,?> v = validator().required().freeze();
+		assertTrue(v.isFrozen());
+		assertFalse(v.isValid(null));
+		try {
+			v.withErrorCode("custom.code");
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		try {
+			v.in("Hello");
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		try {
+			v.validate(null).setErrorCode("custom.code");
+			fail("Expected an IllegalStateException");
+		} catch (IllegalStateException expected) { }
+		assertEquals("validator.required", v.validate(null).getErrorCode());
+	}
+	
+	
 	protected LinkedValidatorBuilder<?,?> validator() {
 		return property("");
 	}
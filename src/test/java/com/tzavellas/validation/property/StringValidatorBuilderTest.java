@@ -19,11 +19,15 @@ package com.tzavellas.validation.property;
 import static com.tzavellas.validation.TestHelper.assertInvalid;
 import static com.tzavellas.validation.TestHelper.assertValid;
 import static com.tzavellas.validation.property.Validators.string;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
 
+import com.tzavellas.validation.validators.CreditCardValidator;
+import com.tzavellas.validation.validators.ISBNValidator;
+
 /**
  * Unit test for StringValidatorBuilder
  * 
@@ -49,9 +53,13 @@ public class StringValidatorBuilderTest extends LinkedValidatorBuilderTest {
 		
 		assertValid(validator().creditCard(), "4417123456789113"); // number from the CreditCardValidatorTest
 		assertInvalid(validator().creditCard(), "not a credit number");
+		assertValid(validator().creditCard(CreditCardValidator.JCB), "3530111333300000");
+		assertInvalid(validator().creditCard(CreditCardValidator.JCB), "4417123456789113");
 		
 		assertValid(validator().isbn(), "0-262-51087-1"); //SICP
 		assertInvalid(validator().isbn(), "not an isbn");
+		assertInvalid(validator().isbn(), "978-0-262-51087-5");
+		assertValid(validator().isbn(ISBNValidator.ISBN_10 + ISBNValidator.ISBN_13), "978-0-262-51087-5");
 		
 		assertValid(validator().email(), "someone@example.org");
 		assertInvalid(validator().email(), "not a valid email");
@@ -60,6 +68,25 @@ public class StringValidatorBuilderTest extends LinkedValidatorBuilderTest {
 		assertInvalid(validator().url(), "not a valid url");
 	}
 	
+	@Test
+	public void lengthRange() {
+		StringValidatorBuilder v = validator().required().minLength(2).maxLength(4).compile();
+		assertNull(v.validate("abc"));
+		assertEquals("validator.required", v.validate(" ").getErrorCode());
+		assertEquals("validator.string.min.length", v.validate("a").getErrorCode());
+		assertEquals("validator.string.max.length", v.validate("abcde").getErrorCode());
+		
+		// the first failing check in the order of declaration wins
+		assertEquals("validator.string.min.length", validator().minLength(4).maxLength(2).validate("abc").getErrorCode());
+		assertEquals("validator.string.max.length", validator().maxLength(2).minLength(4).validate("abc").getErrorCode());
+		
+		// modifications after compilation are not lost
+		v.regex("[a-c]*");
+		assertEquals("validator.string.regex", v.validate("xyz").getErrorCode());
+		v.withErrorCode("custom.code");
+		assertEquals("custom.code", v.validate("xyz").getErrorCode());
+	}
+	
 	@Test
 	public void testForEmptyString() {
 		assertNull("Since this is not required the empty string is a valid value.",
@@ -67,4 +94,31 @@ public class StringValidatorBuilderTest extends LinkedValidatorBuilderTest {
 		assertNotNull("Since this is required the empty string is not a valid value.",
 				validator().required().url().validate(""));
 	}
+	
+	@Test
+	public void regexWithMaxLength() {
+		assertValid(validator().regex("a+", 5), "aaaaa");
+		assertInvalid(validator().regex("a+", 5), "aaaaaa");
+	}
+	
+	@Test(timeout = 5000)
+	public void riskyRegexIsBounded() {
+		StringBuilder payload = new StringBuilder();
+		for (int i = 0; i < 40; i++)
+			payload.append('a');
+		payload.append('!');
+		assertInvalid(validator().regex("(a+)+"), payload.toString());
+		assertValid(validator().regex("(a+)+"), "aaaa");
+	}
+	
+	@Test(timeout = 5000)
+	public void polynomialRegexIsBounded() {
+		StringBuilder payload = new StringBuilder();
+		for (int i = 0; i < 5000; i++)
+			payload.append('a');
+		for (String regex: new String[] { "(?i)\\w*\\w*\\w*\\w*!", "\\b\\w*\\w*\\w*\\w*!" }) {
+			assertInvalid(validator().regex(regex), payload.toString());
+			assertValid(validator().regex(regex), "abc!");
+		}
+	}
 }
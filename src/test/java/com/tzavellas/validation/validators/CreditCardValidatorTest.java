@@ -67,6 +67,28 @@ public class CreditCardValidatorTest extends TestCase {
         assertTrue(ccv.isValid(VALID_DINERS));
     }
     
+    public void testModernRanges() {
+        CreditCardValidator ccv = new CreditCardValidator();
+        assertTrue(ccv.isValid("2221000000000009"));   // Mastercard 2-series
+        assertTrue(ccv.isValid("2720999999999996"));
+        assertFalse(ccv.isValid("2721000000000004"));
+        assertFalse(ccv.isValid("5600000000000003"));
+        assertTrue(ccv.isValid("6445644564456445"));   // Discover 644-649
+        assertTrue(ccv.isValid("4111111111111111110")); // 19 digit Visa
+        
+        // not allowed by default
+        assertFalse(ccv.isValid("3530111333300000"));
+        assertFalse(ccv.isValid(VALID_DINERS));
+        assertFalse(ccv.isValid("6200000000000005"));
+        
+        ccv = new CreditCardValidator(CreditCardValidator.JCB + CreditCardValidator.DINERS + CreditCardValidator.UNIONPAY);
+        assertTrue(ccv.isValid("3530111333300000"));
+        assertTrue(ccv.isValid(VALID_DINERS));
+        assertTrue(ccv.isValid("36227206271667"));
+        assertTrue(ccv.isValid("6200000000000005"));
+        assertFalse(ccv.isValid(VALID_VISA));
+    }
+    
     /**
      * Test a custom implementation of CreditCardType.
      */
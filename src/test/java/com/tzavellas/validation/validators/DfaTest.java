@@ -0,0 +1,64 @@
+package com.tzavellas.validation.validators;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class DfaTest {
+
+	private static final String[] INPUTS = {
+		"", "a", "ab", "abc", "aaa", "abab", "a1", "1", "123", "12345", "A_z", " ", "\t",
+		"a\n", "\n", "a.b", "-", "x-y", "0-262-51087-1", "0 262 51087 X", "é", "😀",
+		"a😀b", "ab!", "a b", "aab", "ba"
+	};
+
+	@Test
+	public void matchesLikePattern() {
+		String[] regexes = {
+			"", "a", "a*", "a+", "a?b", "(a|b)*", "(?:ab)+", "a{2}", "a{1,3}", "a{2,}", "(a+)+", "(a|aa)*b",
+			".", ".*", ".+b", "\\d+", "\\D", "\\w+", "\\W", "\\s", "\\S+", "[abc]+", "[^ab]", "[a-c]*",
+			"[-a]+", "[a-]", "[\\d-]+", "\\p{Alpha}\\p{Alnum}*", "\\P{Digit}", "\\p{Punct}", "\\p{Space}",
+			"\\x61", "\\u00e9", "\\0141", "\\.", "a\\.b", "^ab$", "^a|b$", "a*?b", "(a|)b", "()",
+			"(\\d{1,5})(\\-|\\s)(\\d{1,7})(\\-|\\s)(\\d{1,6})(\\-|\\s)([0-9X])", "a.b", "a\\.b|x-y"
+		};
+		for (String regex : regexes) {
+			Dfa dfa = Dfa.compile(regex);
+			assertNotNull(regex, dfa);
+			Pattern p = Pattern.compile(regex);
+			for (String input : INPUTS)
+				assertEquals(regex + " on " + input, p.matcher(input).matches(), dfa.matches(input));
+		}
+	}
+
+	@Test
+	public void unsupportedRegexes() {
+		String[] regexes = {
+			"(a)\\1", "(?i)a", "(?=a)", "a\\b", "a*+", "a++", "[a-z&&[^b]]", "[a[b]]", "\\Qa\\E",
+			"\\p{L}", "a^", "a$b", "(a$)", "\\cA", "\\R"
+		};
+		for (String regex : regexes)
+			assertNull(regex, Dfa.compile(regex));
+	}
+
+	@Test
+	public void tooLargeAutomaton() {
+		assertNull(Dfa.compile("(a|b)*a(a|b){20}"));
+	}
+
+	@Test(timeout = 5000)
+	public void linearTime() {
+		Dfa dfa = Dfa.compile("(a+)+b");
+		StringBuilder input = new StringBuilder();
+		for (int i = 0; i < 1000000; i++)
+			input.append('a');
+		assertFalse(dfa.matches(input));
+		input.append('b');
+		assertTrue(dfa.matches(input));
+	}
+}
@@ -128,12 +128,68 @@ public class EmailValidatorTest extends TestCase {
         			"joeblow@apa che.org ");
     }
 
+    /**
+     * Tests the segment bounds of numeric domains.
+     */
+    public void testEmailWithNumericAddressBounds() {
+        assertValid("someone@[0.0.0.0]", "someone@[255.255.255.255]");
+
+        assertInvalid("someone@[256.1.1.1]",
+                    "someone@[1.2.3]",
+                    "someone@[1.2.3.4.5]",
+                    "someone@[1.2.3.0004]",
+                    "someone@[1.2.3.4] ",
+                    "someone@[1.2.3.4");
+    }
+
+    /**
+     * Tests the email validation with quoted user names.
+     */
+    public void testEmailWithQuotedUser() {
+        assertValid("\"joe blow\"@apache.org",
+                    "\"joe@home\"@apache.org",
+                    "joe.\"blow\"@apache.org");
+
+        assertInvalid("\"joe\"blow@apache.org",
+                    "\"joe@apache.org",
+                    "joe..blow@apache.org");
+    }
+
+    /**
+     * Tests that long invalid addresses are rejected without backtracking.
+     */
+    public void testLongInvalidEmail() {
+        StringBuilder email = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            email.append("a'");
+        }
+        email.append("\u0001@apache.org");
+        assertInvalid(email.toString());
+    }
+
+    /**
+     * Tests that the component methods of subclasses are called.
+     */
+    public void testOverriddenComponentMethods() {
+        validator = new EmailValidator() {
+            @Override
+            protected boolean isValidUser(String user) {
+                return !user.equals("root") && super.isValidUser(user);
+            }
+            @Override
+            protected boolean isValidSymbolicDomain(String domain) {
+                return domain.endsWith(".local") || super.isValidSymbolicDomain(domain);
+            }
+        };
+        assertValid("jsmith@apache.org", "jsmith@printer.local", "someone@[216.109.118.76]");
+        assertInvalid("root@apache.org", "jsmith@printer.loc@l", "jsmith@[256.1.1.1]");
+    }
+
    /**
     * Tests the email validation with ascii control characters.
     * (i.e. Ascii chars 0 - 31 and 127)
     */
-    //TODO make this test pass
-    public void _testEmailWithControlChars() {
+    public void testEmailWithControlChars() {
         EmailValidator validator = new EmailValidator();
         for (char c = 0; c < 32; c++) {
             assertFalse("Test control char " + ((int)c), validator.isValid("foo" + c + "bar@domain.com"));
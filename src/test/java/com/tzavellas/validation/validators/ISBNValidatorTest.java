@@ -52,4 +52,43 @@ public class ISBNValidatorTest extends TestCase {
         assertTrue(validator.isValid(VALID_ISBN_X));
         assertFalse(validator.isValid(INVALID_ISBN));
     }
+
+    public void testIsValidIsbn13() {
+        ISBNValidator validator = new ISBNValidator(ISBNValidator.ISBN_13);
+        assertTrue(validator.isValid("9780262510875"));
+        assertTrue(validator.isValid("978-0-262-51087-5"));
+        assertTrue(validator.isValid("978 0 262 51087 5"));
+        assertTrue(validator.isValid("979-10-90636-07-1"));
+        assertFalse(validator.isValid("9780262510876"));
+        assertFalse(validator.isValid("978--0262510875"));
+        assertFalse(validator.isValid("-9780262510875"));
+        assertFalse(validator.isValid("9780262510875-"));
+        assertFalse(validator.isValid("97802625108750"));
+        assertFalse(validator.isValid("4006381333931")); // EAN-13 but not an ISBN
+        assertFalse(validator.isValid(VALID_ISBN_RAW));
+    }
+
+    public void testIsValidEan13() {
+        ISBNValidator validator = new ISBNValidator(ISBNValidator.EAN_13);
+        assertTrue(validator.isValid("4006381333931"));
+        assertTrue(validator.isValid("9780262510875"));
+        assertFalse(validator.isValid("4006381333932"));
+    }
+
+    public void testIsValidIssn() {
+        ISBNValidator validator = new ISBNValidator(ISBNValidator.ISSN);
+        assertTrue(validator.isValid("0317-8471"));
+        assertTrue(validator.isValid("03178471"));
+        assertTrue(validator.isValid("2434-561X"));
+        assertFalse(validator.isValid("0317-8472"));
+        assertFalse(validator.isValid("031-78471"));
+        assertFalse(validator.isValid("X317-8471"));
+    }
+
+    public void testMultipleVariants() {
+        ISBNValidator validator = new ISBNValidator(ISBNValidator.ISBN_10 + ISBNValidator.ISBN_13);
+        assertTrue(validator.isValid(VALID_ISBN_DASHES));
+        assertTrue(validator.isValid("978-0-262-51087-5"));
+        assertFalse(validator.isValid("0317-8471"));
+    }
 }
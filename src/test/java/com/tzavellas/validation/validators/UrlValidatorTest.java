@@ -85,7 +85,10 @@ public class UrlValidatorTest extends TestCase {
     * @param testObjects Used to create a url.
     */
    public void testIsValid(Object[] testObjects, int options) {
-      UrlValidator urlVal = new UrlValidator(null, options);
+      testIsValid(testObjects, new UrlValidator(null, options));
+   }
+
+   private void testIsValid(Object[] testObjects, UrlValidator urlVal) {
       assertTrue(urlVal.isValid("http://www.google.com"));
       assertTrue(urlVal.isValid("http://www.google.com/"));
       int statusPerLine = 60;
@@ -139,6 +142,58 @@ public class UrlValidatorTest extends TestCase {
        assertTrue(urlValidator.isValid("http://tech.yahoo.com/rc/desktops/102;_ylt=Ao8yevQHlZ4On0O3ZJGXLEQFLZA5"));
    }
 
+   public void testLineTerminators() {
+       UrlValidator urlValidator = new UrlValidator();
+       assertTrue(urlValidator.isValid("http://www.google.com/?q=a#top"));
+       assertFalse(urlValidator.isValid("http://www.google.com\n"));
+       assertFalse(urlValidator.isValid("http://www.google.com/?q=\r"));
+       assertFalse(urlValidator.isValid("http://www.google.com/#top\n"));
+       assertTrue(urlValidator.isValid("http://www.google.com "));
+   }
+
+   public void testDotSegments() {
+       UrlValidator urlValidator = new UrlValidator();
+       assertTrue(urlValidator.isValid("http://www.google.com/a/b/../c"));
+       assertFalse(urlValidator.isValid("http://www.google.com/../c"));
+       assertFalse(urlValidator.isValid("http://www.google.com/.../c"));
+   }
+
+   public void testOverriddenComponentMethods() {
+      int options =
+         UrlValidator.ALLOW_2_SLASHES
+            + UrlValidator.ALLOW_ALL_SCHEMES
+            + UrlValidator.NO_FRAGMENTS;
+      testIsValid(testUrlParts, new ComponentUrlValidator(UrlValidator.ALLOW_ALL_SCHEMES));
+      setUp();
+      testIsValid(testUrlPartsOptions, new ComponentUrlValidator(options));
+
+      UrlValidator urlValidator = new UrlValidator(null, UrlValidator.ALLOW_ALL_SCHEMES) {
+         @Override
+         protected boolean isValidScheme(String scheme) {
+            return "svn+ssh".equals(scheme) || super.isValidScheme(scheme);
+         }
+         @Override
+         protected boolean isValidQuery(String query) {
+            return query == null || !query.contains("debug");
+         }
+      };
+      assertTrue(urlValidator.isValid("svn+ssh://www.google.com/repo"));
+      assertTrue(urlValidator.isValid("http://www.google.com/?q=a"));
+      assertFalse(urlValidator.isValid("http://www.google.com/?debug=true"));
+      assertFalse(urlValidator.isValid("http://www.google.com/#top\n"));
+   }
+
+   /** Overrides the component methods without changing them. */
+   private static class ComponentUrlValidator extends UrlValidator {
+      ComponentUrlValidator(int options) {
+         super(null, options);
+      }
+      @Override
+      protected boolean isValidQuery(String query) {
+         return super.isValidQuery(query);
+      }
+   }
+
    static boolean incrementTestPartsIndex(int[] testPartsIndex, Object[] testParts) {
       boolean carry = true;  //add 1 to lowest order part.
       boolean maxIndex = true;